@@ -0,0 +1,26 @@
+package org.example.bench;
+
+import org.example.util.CSRGraph;
+import org.example.util.GraphGenerator;
+
+// Maps the benchmark shape names onto GraphGenerator, m is the requested number of edges.
+// sparse/dense are random digraphs with cycles, chain and wide are DAGs.
+public final class BenchmarkGraphs {
+
+    private BenchmarkGraphs() {
+    }
+
+    public static CSRGraph generateCSR(String shape, int m, long seed) {
+        GraphGenerator generator = new GraphGenerator(seed);
+        return switch (shape) {
+            case "sparse" -> generator.generateCSR(GraphGenerator.Shape.ERDOS_RENYI, Math.max(2, m / 4), m);
+            case "dense" -> generator.generateCSR(GraphGenerator.Shape.ERDOS_RENYI, Math.max(2, (int) Math.sqrt(4.0 * m)), m);
+            case "chain" -> generator.generateCSR(GraphGenerator.Shape.LONG_CHAIN, m + 1, m);
+            case "wide" -> {
+                generator.setLayerCount(4);
+                yield generator.generateCSR(GraphGenerator.Shape.LAYERED_DAG, Math.max(4, m / 3), m);
+            }
+            default -> throw new IllegalArgumentException("Unknown graph shape: " + shape);
+        };
+    }
+}
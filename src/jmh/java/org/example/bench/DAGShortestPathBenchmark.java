@@ -0,0 +1,35 @@
+package org.example.bench;
+
+import org.example.graph.dagsp.DAGShortestPath;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xss1g", "-Xmx8g"})
+public class DAGShortestPathBenchmark {
+
+    @Benchmark
+    public DAGShortestPath.ShortestPathResult shortestPaths(GraphState state) {
+        return state.dagSP.shortestPaths(state.source, state.originalOrder);
+    }
+
+    // same sweep with Metrics.DISABLED, the difference to shortestPaths is the cost of counting
+    @Benchmark
+    public DAGShortestPath.ShortestPathResult shortestPathsMetricsDisabled(GraphState state) {
+        return state.dagSPUncounted.shortestPaths(state.source, state.originalOrder);
+    }
+
+    @Benchmark
+    public DAGShortestPath.LongestPathResult longestPath(GraphState state) {
+        return state.dagSP.longestPath(state.source, state.originalOrder);
+    }
+
+    @Benchmark
+    public DAGShortestPath.CriticalPathResult findCriticalPath(GraphState state) {
+        return state.dagSP.findCriticalPath(state.originalOrder);
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.bench;
+
+import org.example.graph.dagsp.DAGShortestPath;
+import org.example.graph.scc.TarjanSCC;
+import org.example.graph.topo.TopologicalSort;
+import org.example.util.CSRGraph;
+import org.example.util.Metrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+
+// Graph plus the pipeline intermediates every benchmark needs, built once per trial.
+@State(Scope.Benchmark)
+public class GraphState {
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int edges;
+
+    @Param({"sparse", "dense", "chain", "wide"})
+    public String shape;
+
+    public CSRGraph graph;
+    public TarjanSCC tarjan;
+    public CSRGraph condensation;
+    public List<Integer> originalOrder;
+    public DAGShortestPath dagSP;
+    public DAGShortestPath dagSPUncounted;
+    public int source;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = BenchmarkGraphs.generateCSR(shape, edges, 42L);
+
+        tarjan = new TarjanSCC(graph);
+        List<List<Integer>> sccs = tarjan.findSCCsIterative();
+        condensation = tarjan.buildCondensationCSR();
+
+        TopologicalSort topo = new TopologicalSort(condensation);
+        originalOrder = topo.sortOriginalVertices(sccs, topo.kahnSort());
+
+        dagSP = new DAGShortestPath(graph, "edge");
+        dagSPUncounted = new DAGShortestPath(graph, "edge");
+        dagSPUncounted.setMetrics(Metrics.DISABLED);
+        source = originalOrder.get(0);
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.bench;
+
+import org.example.graph.scc.TarjanSCC;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xss1g", "-Xmx8g"})
+public class SCCBenchmark {
+
+    // TarjanSCC keeps its DFS state, so every invocation needs a fresh instance;
+    // the recursive version relies on the large -Xss above for chain graphs
+    @Benchmark
+    public List<List<Integer>> findSCCs(GraphState state) {
+        return new TarjanSCC(state.graph).findSCCs();
+    }
+
+    @Benchmark
+    public List<List<Integer>> findSCCsIterative(GraphState state) {
+        return new TarjanSCC(state.graph).findSCCsIterative();
+    }
+
+    @Benchmark
+    public List<List<Integer>> buildCondensationGraph(GraphState state) {
+        return state.tarjan.buildCondensationGraph();
+    }
+}
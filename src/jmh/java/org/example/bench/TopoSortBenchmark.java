@@ -0,0 +1,54 @@
+package org.example.bench;
+
+import org.example.graph.topo.TopologicalSort;
+import org.example.util.CSRGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xss1g", "-Xmx8g"})
+// Sorts the generated graph itself, so only the DAG shapes: on sparse/dense the sort would
+// run on the condensation, whose size depends on the SCCs found and not on the edges param.
+@State(Scope.Thread)
+public class TopoSortBenchmark {
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int edges;
+
+    @Param({"chain", "wide"})
+    public String shape;
+
+    private TopologicalSort topo;
+    private int[] order;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CSRGraph graph = BenchmarkGraphs.generateCSR(shape, edges, 42L);
+        topo = new TopologicalSort(graph);
+        order = new int[graph.getN()];
+    }
+
+    @Benchmark
+    public List<Integer> kahnSort() {
+        return topo.kahnSort();
+    }
+
+    @Benchmark
+    public List<Integer> dfsSort() {
+        return topo.dfsSort();
+    }
+
+    @Benchmark
+    public int kahnSortPrimitive() {
+        return topo.kahnSort(order);
+    }
+
+    @Benchmark
+    public int dfsSortPrimitive() {
+        return topo.dfsSort(order);
+    }
+}
@@ -1,13 +1,16 @@
 package org.example;
 
-import org.example.graph.scc.TarjanSCC;
-import org.example.graph.topo.TopologicalSort;
-import org.example.graph.dagsp.DAGShortestPath;
+import org.example.graph.pipeline.GraphPipeline;
+import org.example.util.GraphGenerator;
 import org.example.util.GraphLoader;
+import org.example.util.MetricsRegistry;
+import org.example.util.Tracer;
 
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.List;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 public class PerformanceComparison {
     private static final String[] DATASETS = {
@@ -22,6 +25,9 @@ public class PerformanceComparison {
         "data/large_3_dense.json"
     };
 
+    private static final MetricsRegistry registry = new MetricsRegistry();
+    private static final Tracer tracer = new Tracer();
+
     public static void main(String[] args) {
         try {
             FileWriter csvWriter = new FileWriter("algorithm_comparison.csv");
@@ -31,9 +37,14 @@ public class PerformanceComparison {
             java.util.List<ComparisonResult> allResults = new java.util.ArrayList<>();
             
             for (String dataset : DATASETS) {
-                try {
-                    GraphLoader.Graph graph = GraphLoader.loadGraph(dataset);
-                    String datasetName = dataset.replace("data/", "").replace(".json", "");
+                String datasetName = dataset.replace("data/", "").replace(".json", "");
+                try (Tracer.Span span = tracer.span(datasetName)) {
+                    GraphLoader.Graph graph;
+                    try (Tracer.Span load = tracer.span("load")) {
+                        graph = GraphLoader.loadGraph(dataset);
+                        load.counter("edges", graph.getEdgeCount());
+                    }
+                    span.counter("vertices", graph.getN());
                     
                     ComparisonResult result = compareAlgorithms(graph, datasetName);
                     writeCsvRow(csvWriter, result);
@@ -44,9 +55,42 @@ public class PerformanceComparison {
                 }
             }
             
+            // extra inputs: graph files (JSON or binary, see BinaryGraphFormat) or synthetic
+            // graphs given as shape:n:m, e.g. planted_scc:1000000:5000000
+            for (String spec : args) {
+                try (Tracer.Span span = tracer.span(spec)) {
+                    GraphLoader.Graph graph;
+                    try (Tracer.Span load = tracer.span("load")) {
+                        Path file = Paths.get(spec);
+                        if (Files.isRegularFile(file)) {
+                            graph = GraphLoader.loadGraph(file);
+                        } else {
+                            String[] parts = spec.split(":");
+                            GraphGenerator.Shape shape = GraphGenerator.Shape.valueOf(parts[0].toUpperCase(java.util.Locale.ROOT));
+                            int n = Integer.parseInt(parts[1]);
+                            int m = Integer.parseInt(parts[2]);
+                            graph = new GraphGenerator(42L).generateGraph(shape, n, m);
+                        }
+                        load.counter("edges", graph.getEdgeCount());
+                    }
+                    span.counter("vertices", graph.getN());
+
+                    ComparisonResult result = compareAlgorithms(graph, spec);
+                    writeCsvRow(csvWriter, result);
+                    allResults.add(result);
+                } catch (Exception e) {
+                    System.err.println("Error processing " + spec + ": " + e.getMessage());
+                }
+            }
+
             csvWriter.close();
+            registry.writePrometheus(Paths.get("algorithm_metrics.prom"));
+            registry.writeJson(Paths.get("algorithm_metrics.json"));
+            tracer.writeChromeTrace(Paths.get("algorithm_trace.json"));
             
             System.out.println("CSV file updated: algorithm_comparison.csv");
+            System.out.println("Aggregated metrics: algorithm_metrics.prom, algorithm_metrics.json");
+            System.out.println("Phase trace (chrome://tracing, Perfetto): algorithm_trace.json");
             
         } catch (IOException e) {
             System.err.println("Error writing files: " + e.getMessage());
@@ -55,7 +99,8 @@ public class PerformanceComparison {
     
     private static class ComparisonResult {
         String datasetName;
-        int n, m;
+        int n;
+        long m;
         double sccTime, topoTime, dagTime;
         long sccVisits, dagRelax;
         int sccCount, sccEdges;
@@ -88,30 +133,23 @@ public class PerformanceComparison {
 
     private static ComparisonResult compareAlgorithms(GraphLoader.Graph graph, String datasetName) {
         int n = graph.getN();
-        int m = graph.getEdges().size();
-
-        TarjanSCC tarjan = TarjanSCC.fromGraphLoader(graph);
-        List<List<Integer>> sccs = tarjan.findSCCs();
-        double sccTime = tarjan.getMetrics().getElapsedTimeMs();
-        long sccVisits = tarjan.getMetrics().getDfsVisits();
-
-        List<List<Integer>> condensation = tarjan.buildCondensationGraph();
-        int sccCount = sccs.size();
-        int sccEdges = 0;
-        for (List<Integer> adj : condensation) {
-            sccEdges += adj.size();
-        }
-
-        TopologicalSort topo = new TopologicalSort(condensation, condensation.size());
-        List<Integer> topoOrder = topo.kahnSort();
-        double topoTime = topo.getMetrics().getElapsedTimeMs();
+        long m = graph.getEdgeCount();
 
-        List<Integer> originalOrder = topo.sortOriginalVertices(sccs, topoOrder);
+        // every stage is traced by the pipeline; shortestPaths pulls in all of them
+        GraphPipeline pipeline = new GraphPipeline(graph);
+        pipeline.setTracer(tracer);
+        pipeline.shortestPaths();
 
-        DAGShortestPath dagSP = DAGShortestPath.fromGraphLoader(graph);
-        dagSP.shortestPaths(graph.getSource(), originalOrder);
-        double dagTime = dagSP.getMetrics().getElapsedTimeMs();
-        long dagRelax = dagSP.getMetrics().getRelaxations();
+        int sccCount = pipeline.getSCCs().size();
+        int sccEdges = pipeline.getCondensation().getEdgeCount();
+        double sccTime = pipeline.getSccMetrics().getElapsedTimeMs();
+        long sccVisits = pipeline.getSccMetrics().getDfsVisits();
+        double topoTime = pipeline.getTopoMetrics().getElapsedTimeMs();
+        double dagTime = pipeline.getPathMetrics().getElapsedTimeMs();
+        long dagRelax = pipeline.getPathMetrics().getRelaxations();
+        registry.record("scc_tarjan", pipeline.getSccMetrics());
+        registry.record("topo_kahn", pipeline.getTopoMetrics());
+        registry.record("dagsp_shortest", pipeline.getPathMetrics());
         
         ComparisonResult result = new ComparisonResult();
         result.datasetName = datasetName;
@@ -271,7 +309,7 @@ public class PerformanceComparison {
         writer.write("Effectiveness of SCC Compression:\n");
         int totalOriginalVertices = results.stream().mapToInt(r -> r.n).sum();
         int totalSCCs = results.stream().mapToInt(r -> r.sccCount).sum();
-        int totalOriginalEdges = results.stream().mapToInt(r -> r.m).sum();
+        long totalOriginalEdges = results.stream().mapToLong(r -> r.m).sum();
         int totalSCCEdges = results.stream().mapToInt(r -> r.sccEdges).sum();
         
         writer.write(String.format("   Overall: %d vertices -> %d SCCs (%.1f%% reduction)\n",
@@ -0,0 +1,280 @@
+package org.example.graph.dagsp;
+
+import org.example.graph.scc.Condensation;
+import org.example.util.CSRGraph;
+import org.example.util.GraphAdjacency;
+import org.example.util.Metrics;
+
+import java.util.*;
+
+// Shortest and longest paths over the condensation DAG. Every component is one node, so the
+// sweep is topological even on cyclic inputs and scans each pair of adjacent components once.
+// A path pays the weight of every edge between components and the cost of every component it
+// passes through, the first and the last included; the IntraCost rule decides that cost.
+// Under the node weight model edges between components are free and the rule aggregates the
+// weights of the component's vertices instead of its internal edges.
+// Results are per original vertex: a vertex gets the distance of its component.
+public class CondensedPaths {
+
+    public enum IntraCost {
+        // moving inside a component is free; under the node model a component of one vertex
+        // still costs that vertex
+        ZERO,
+        // the cheapest internal edge (0 without one), or the lightest vertex under the node model
+        MIN,
+        // every internal edge, or every vertex under the node model: the total work of a cycle
+        SUM
+    }
+
+    private final int n;
+    private final int componentCount;
+    private final int[] component;
+    private final int[] order;
+    private final IntraCost intraCost;
+    private final int[] cost;
+    // component DAG from Condensation.buildDetailed; for the cheapest and the heaviest original
+    // edge of each pair the weight and both endpoints are kept, so paths map back to vertices
+    private final int[] dagOffsets;
+    private final int[] dagTargets;
+    private final int[] minWeight;
+    private final int[] minTail;
+    private final int[] minHead;
+    private final int[] maxWeight;
+    private final int[] maxTail;
+    private final int[] maxHead;
+    private Metrics metrics;
+
+    public CondensedPaths(GraphAdjacency graph, int[] component, int componentCount,
+                          List<Integer> componentOrder, IntraCost intraCost) {
+        this(graph, component, componentCount, componentOrder, intraCost, null);
+    }
+
+    // nodeWeights selects the node weight model, null keeps the edge weights
+    public CondensedPaths(GraphAdjacency graph, int[] component, int componentCount,
+                          List<Integer> componentOrder, IntraCost intraCost, int[] nodeWeights) {
+        if (componentOrder.size() != componentCount) {
+            throw new IllegalArgumentException("componentOrder has " + componentOrder.size()
+                    + " entries for " + componentCount + " components");
+        }
+        this.n = graph.getN();
+        this.componentCount = componentCount;
+        this.component = component;
+        this.intraCost = intraCost;
+        this.metrics = new Metrics();
+        this.order = new int[componentCount];
+        for (int i = 0; i < componentCount; i++) {
+            order[i] = componentOrder.get(i);
+        }
+
+        Condensation.Detailed condensation = Condensation.buildDetailed(graph, component, componentCount);
+        CSRGraph dag = condensation.getDag();
+        this.dagOffsets = dag.getOffsets();
+        this.dagTargets = dag.getTargets();
+        this.minTail = condensation.getMinTails();
+        this.minHead = condensation.getMinHeads();
+        this.maxTail = condensation.getMaxTails();
+        this.maxHead = condensation.getMaxHeads();
+        boolean nodeModel = nodeWeights != null;
+        if (nodeModel) {
+            // edges between components are free, any crossing edge is as good as another
+            this.minWeight = new int[dag.getEdgeCount()];
+            this.maxWeight = minWeight;
+        } else {
+            this.minWeight = dag.getWeights();
+            this.maxWeight = condensation.getMaxWeights();
+        }
+
+        int[] memberOffsets = condensation.getMemberOffsets();
+        int[] members = condensation.getMembers();
+        this.cost = new int[componentCount];
+        for (int c = 0; c < componentCount; c++) {
+            long sum = 0;
+            int min = Integer.MAX_VALUE;
+            for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++) {
+                int u = members[i];
+                if (nodeModel) {
+                    sum += nodeWeights[u];
+                    min = Math.min(min, nodeWeights[u]);
+                    continue;
+                }
+                for (long e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    if (component[graph.target(e)] != c) continue;
+                    int w = graph.weight(e);
+                    sum += w;
+                    min = Math.min(min, w);
+                }
+            }
+            boolean single = memberOffsets[c + 1] - memberOffsets[c] == 1;
+            cost[c] = switch (intraCost) {
+                // a lone vertex is still visited, only the walk around a cycle is free
+                case ZERO -> nodeModel && single ? nodeWeights[members[memberOffsets[c]]] : 0;
+                case MIN -> min == Integer.MAX_VALUE ? 0 : min;
+                case SUM -> Math.toIntExact(sum);
+            };
+        }
+    }
+
+    // Unreachable vertices keep Integer.MAX_VALUE. The parent of the vertex a path enters a
+    // component through is the tail of the entering edge; every other vertex of the component
+    // has that entry vertex (or the source) as parent, which stands for a walk inside the
+    // component rather than a single edge.
+    public DAGShortestPath.ShortestPathResult shortestPaths(int source) {
+        metrics.reset();
+        metrics.startTiming();
+
+        int[] compDist = new int[componentCount];
+        Arrays.fill(compDist, Integer.MAX_VALUE);
+        int[] entry = new int[componentCount];
+        int[] entryParent = new int[componentCount];
+        Arrays.fill(entry, -1);
+        int s = component[source];
+        compDist[s] = cost[s];
+        entry[s] = source;
+        entryParent[s] = -1;
+
+        long relaxations = 0;
+        for (int c : order) {
+            if (compDist[c] == Integer.MAX_VALUE) continue;
+            relaxations += dagOffsets[c + 1] - dagOffsets[c];
+            for (int e = dagOffsets[c]; e < dagOffsets[c + 1]; e++) {
+                int d = dagTargets[e];
+                int candidate = compDist[c] + minWeight[e] + cost[d];
+                if (candidate < compDist[d]) {
+                    compDist[d] = candidate;
+                    entry[d] = minHead[e];
+                    entryParent[d] = minTail[e];
+                }
+            }
+        }
+
+        int[] dist = new int[n];
+        int[] parent = new int[n];
+        expand(compDist, entry, entryParent, dist, parent);
+        metrics.addRelaxations(relaxations);
+        metrics.stopTiming();
+        return new DAGShortestPath.ShortestPathResult(dist, parent);
+    }
+
+    // same layout as shortestPaths, unreachable vertices keep Integer.MIN_VALUE
+    public DAGShortestPath.LongestPathResult longestPath(int source) {
+        metrics.reset();
+        metrics.startTiming();
+
+        int[] compDist = new int[componentCount];
+        Arrays.fill(compDist, Integer.MIN_VALUE);
+        int[] entry = new int[componentCount];
+        int[] entryParent = new int[componentCount];
+        Arrays.fill(entry, -1);
+        int s = component[source];
+        compDist[s] = cost[s];
+        entry[s] = source;
+        entryParent[s] = -1;
+
+        long relaxations = sweepLongest(compDist, entry, entryParent);
+
+        int[] dist = new int[n];
+        int[] parent = new int[n];
+        expand(compDist, entry, entryParent, dist, parent);
+        metrics.addRelaxations(relaxations);
+        metrics.stopTiming();
+        return new DAGShortestPath.LongestPathResult(dist, parent);
+    }
+
+    // heaviest chain of components from any start; the path lists the original vertices
+    // where it enters and leaves every component, parents follow the layout of longestPath
+    public DAGShortestPath.CriticalPathResult findCriticalPath() {
+        metrics.reset();
+        metrics.startTiming();
+
+        int[] compDist = new int[componentCount];
+        int[] entry = new int[componentCount];
+        int[] entryParent = new int[componentCount];
+        Arrays.fill(entry, -1);
+        Arrays.fill(entryParent, -1);
+        System.arraycopy(cost, 0, compDist, 0, componentCount);
+
+        long relaxations = sweepLongest(compDist, entry, entryParent);
+
+        int best = -1;
+        for (int c = 0; c < componentCount; c++) {
+            if (best == -1 || compDist[c] > compDist[best]) best = c;
+        }
+
+        int[] parent = new int[n];
+        expand(compDist, entry, entryParent, null, parent);
+        int end = -1;
+        if (best != -1) {
+            // a chain of one component has no entry vertex and stands for any of its members
+            end = entry[best] != -1 ? entry[best] : firstMember(best);
+        }
+
+        metrics.addRelaxations(relaxations);
+        metrics.stopTiming();
+        return new DAGShortestPath.CriticalPathResult(parent, end, best == -1 ? 0 : compDist[best]);
+    }
+
+    private long sweepLongest(int[] compDist, int[] entry, int[] entryParent) {
+        long relaxations = 0;
+        for (int c : order) {
+            if (compDist[c] == Integer.MIN_VALUE) continue;
+            relaxations += dagOffsets[c + 1] - dagOffsets[c];
+            for (int e = dagOffsets[c]; e < dagOffsets[c + 1]; e++) {
+                int d = dagTargets[e];
+                int candidate = compDist[c] + maxWeight[e] + cost[d];
+                if (candidate > compDist[d]) {
+                    compDist[d] = candidate;
+                    entry[d] = maxHead[e];
+                    entryParent[d] = maxTail[e];
+                }
+            }
+        }
+        return relaxations;
+    }
+
+    // dist may be null when only the parents are needed
+    private void expand(int[] compDist, int[] entry, int[] entryParent, int[] dist, int[] parent) {
+        for (int v = 0; v < n; v++) {
+            int c = component[v];
+            if (dist != null) dist[v] = compDist[c];
+            int in = entry[c];
+            if (in == -1) {
+                parent[v] = -1;
+            } else {
+                parent[v] = v == in ? entryParent[c] : in;
+            }
+        }
+    }
+
+    private int firstMember(int c) {
+        for (int v = 0; v < n; v++) {
+            if (component[v] == c) return v;
+        }
+        return -1;
+    }
+
+    public IntraCost getIntraCost() {
+        return intraCost;
+    }
+
+    public int getComponentCost(int c) {
+        return cost[c];
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    // edges of the component DAG after merging parallel edges
+    public int getDagEdgeCount() {
+        return dagOffsets[componentCount];
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    // Metrics.DISABLED turns off counting and timing
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+}
@@ -0,0 +1,244 @@
+package org.example.graph.dagsp;
+
+import org.example.graph.topo.ParallelTopologicalSort;
+import org.example.util.CSRGraph;
+import org.example.util.GraphAdjacency;
+import org.example.util.Metrics;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+// Critical path method over the graph of a DAGShortestPath. A task takes its node weight under
+// the node model and no time under the edge model; an edge u -> v means v starts after u ends,
+// plus the edge weight under the edge model. The forward pass pulls earliest starts from the
+// predecessors (reverse CSR), the backward pass pulls latest finishes from the successors, one
+// topological level at a time; every vertex of a level is independent, so large levels are
+// split over a ForkJoinPool.
+public class CriticalPathAnalysis {
+    private static final int LEVEL_CHUNK = 1_024;
+
+    private final DAGShortestPath paths;
+    private final int parallelism;
+    private Metrics metrics;
+    private GraphAdjacency prepared;
+    private long preparedVersion;
+    private CSRGraph forward;
+    private CSRGraph reverse;
+    private ParallelTopologicalSort.LevelOrder levels;
+
+    public static class Schedule {
+        private final int[] earliestStart;
+        private final int[] earliestFinish;
+        private final int[] latestStart;
+        private final int[] latestFinish;
+        private final int[] slack;
+        private final int projectDuration;
+        private final int[] order;
+
+        public Schedule(int[] earliestStart, int[] earliestFinish, int[] latestStart, int[] latestFinish,
+                        int[] slack, int projectDuration, int[] order) {
+            this.earliestStart = earliestStart;
+            this.earliestFinish = earliestFinish;
+            this.latestStart = latestStart;
+            this.latestFinish = latestFinish;
+            this.slack = slack;
+            this.projectDuration = projectDuration;
+            this.order = order;
+        }
+
+        public int[] getEarliestStart() {
+            return earliestStart;
+        }
+
+        public int[] getEarliestFinish() {
+            return earliestFinish;
+        }
+
+        public int[] getLatestStart() {
+            return latestStart;
+        }
+
+        public int[] getLatestFinish() {
+            return latestFinish;
+        }
+
+        // how far a task can slip without delaying the project
+        public int[] getSlack() {
+            return slack;
+        }
+
+        public int getProjectDuration() {
+            return projectDuration;
+        }
+
+        public boolean isCritical(int v) {
+            return slack[v] == 0;
+        }
+
+        // every task with zero slack, in topological order
+        public int[] getCriticalTasks() {
+            int count = 0;
+            for (int v : order) {
+                if (slack[v] == 0) count++;
+            }
+            int[] critical = new int[count];
+            int i = 0;
+            for (int v : order) {
+                if (slack[v] == 0) critical[i++] = v;
+            }
+            return critical;
+        }
+    }
+
+    public CriticalPathAnalysis(DAGShortestPath paths) {
+        this(paths, Runtime.getRuntime().availableProcessors());
+    }
+
+    public CriticalPathAnalysis(DAGShortestPath paths, int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        this.paths = paths;
+        this.parallelism = parallelism;
+        this.metrics = new Metrics();
+    }
+
+    public Schedule analyze() {
+        metrics.reset();
+        metrics.startTiming();
+        prepare();
+
+        int n = forward.getN();
+        int[] duration = paths.getNodeWeights();
+        int[] es = new int[n];
+        int[] ef = new int[n];
+        int[] ls = new int[n];
+        int[] lf = new int[n];
+        int[] slack = new int[n];
+        int[] order = Arrays.copyOf(levels.getOrder(), levels.getCount());
+        int[] levelOffsets = levels.getLevelOffsets();
+        int levelCount = levels.getLevelCount();
+
+        runLevels(levelOffsets, levelCount, false, (lo, hi) -> {
+            int[] rOffsets = reverse.getOffsets();
+            int[] rTargets = reverse.getTargets();
+            int[] rWeights = reverse.getWeights();
+            for (int i = lo; i < hi; i++) {
+                int v = order[i];
+                int start = 0;
+                for (int e = rOffsets[v]; e < rOffsets[v + 1]; e++) {
+                    int lag = duration == null ? rWeights[e] : 0;
+                    start = Math.max(start, ef[rTargets[e]] + lag);
+                }
+                es[v] = start;
+                ef[v] = start + (duration == null ? 0 : duration[v]);
+            }
+        });
+
+        int projectDuration = 0;
+        for (int v = 0; v < n; v++) projectDuration = Math.max(projectDuration, ef[v]);
+        int finish = projectDuration;
+
+        runLevels(levelOffsets, levelCount, true, (lo, hi) -> {
+            int[] offsets = forward.getOffsets();
+            int[] targets = forward.getTargets();
+            int[] weights = forward.getWeights();
+            for (int i = lo; i < hi; i++) {
+                int u = order[i];
+                int latest = finish;
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int lag = duration == null ? weights[e] : 0;
+                    latest = Math.min(latest, ls[targets[e]] - lag);
+                }
+                lf[u] = latest;
+                ls[u] = latest - (duration == null ? 0 : duration[u]);
+                slack[u] = ls[u] - es[u];
+            }
+        });
+
+        metrics.addRelaxations(2L * forward.getEdgeCount());
+        metrics.stopTiming();
+        return new Schedule(es, ef, ls, lf, slack, projectDuration, order);
+    }
+
+    private interface RangeBody {
+        void run(int lo, int hi);
+    }
+
+    // levels in order (or reversed), each one done before the next starts
+    private void runLevels(int[] levelOffsets, int levelCount, boolean reversed, RangeBody body) {
+        if (parallelism == 1) {
+            for (int k = 0; k < levelCount; k++) {
+                int level = reversed ? levelCount - 1 - k : k;
+                body.run(levelOffsets[level], levelOffsets[level + 1]);
+            }
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    for (int k = 0; k < levelCount; k++) {
+                        int level = reversed ? levelCount - 1 - k : k;
+                        int start = levelOffsets[level];
+                        int end = levelOffsets[level + 1];
+                        if (end - start < 2 * LEVEL_CHUNK) {
+                            body.run(start, end);
+                            continue;
+                        }
+                        List<RecursiveAction> tasks = new ArrayList<>();
+                        for (int lo = start; lo < end; lo += LEVEL_CHUNK) {
+                            int from = lo;
+                            int to = Math.min(lo + LEVEL_CHUNK, end);
+                            tasks.add(new RecursiveAction() {
+                                @Override
+                                protected void compute() {
+                                    body.run(from, to);
+                                }
+                            });
+                        }
+                        ForkJoinTask.invokeAll(tasks);
+                    }
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // forward CSR, reverse CSR and levels, rebuilt only when the graph changed; weight changes
+    // edit the engine's CSR in place and keep the structure, so they only refresh the reverse weights
+    private void prepare() {
+        GraphAdjacency graph = paths.getGraph();
+        long version = paths.getGraphVersion();
+        if (graph == prepared) {
+            if (version != preparedVersion) {
+                reverse = forward.transpose();
+                preparedVersion = version;
+            }
+            return;
+        }
+        forward = graph instanceof CSRGraph csr ? csr : CSRGraph.copyOf(graph);
+        ParallelTopologicalSort sort = new ParallelTopologicalSort(forward, parallelism);
+        sort.setMetrics(Metrics.DISABLED);
+        ParallelTopologicalSort.LevelOrder levelOrder = sort.levelSort();
+        if (!levelOrder.isComplete()) {
+            throw new IllegalArgumentException("Critical path analysis needs a DAG, "
+                    + (forward.getN() - levelOrder.getCount()) + " vertices are on or behind a cycle");
+        }
+        reverse = forward.transpose();
+        levels = levelOrder;
+        prepared = graph;
+        preparedVersion = version;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    // Metrics.DISABLED turns off counting and timing
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+}
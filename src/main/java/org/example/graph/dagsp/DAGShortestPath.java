@@ -1,20 +1,63 @@
 package org.example.graph.dagsp;
 
+import org.example.util.CSRGraph;
+import org.example.util.GraphAdjacency;
 import org.example.util.GraphLoader;
+import org.example.util.IntMinHeap;
 import org.example.util.Metrics;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+// Path sweeps over a DAG in topological order. An instance keeps scratch buffers and, once
+// weights are changed, its own copy of the edges between calls, so it is not thread-safe:
+// use one per thread (PathQueryService builds one per query).
 public class DAGShortestPath {
-    private final List<List<WeightedEdge>> graph;
+    public static final int DEFAULT_SOURCE_BLOCK = 16;
+
+    private GraphAdjacency graph;
     private final int n;
     private final String weightModel;
-    private final Metrics metrics;
-
+    private final int[] nodeWeights;
+    private Metrics metrics;
+    private CSRGraph editable;
+    private long graphVersion;
+    private PathResultCache resultCache;
+    private int[] reverseOffsets;
+    private int[] reverseSources;
+    private int[] reverseEdges;
+    private int[] position;
+    private int[] vertexAt;
+    private boolean[] queued;
+
+    // takes no node weights, so weight model "node" is rejected like a missing weight array
     public DAGShortestPath(List<List<WeightedEdge>> graph, int n, String weightModel) {
+        this(toCSR(graph, n), weightModel);
+    }
+
+    public DAGShortestPath(GraphAdjacency graph, String weightModel) {
+        this(graph, weightModel, null);
+    }
+
+    // With weight model "node" a path costs the sum of the weights of its vertices, the source
+    // included, and edge weights are ignored. The node weights are read in place during
+    // relaxation, no split-node graph is built; any other model uses the edge weights.
+    public DAGShortestPath(GraphAdjacency graph, String weightModel, int[] nodeWeights) {
         this.graph = graph;
-        this.n = n;
+        this.n = graph.getN();
         this.weightModel = weightModel;
+        if ("node".equals(weightModel)) {
+            if (nodeWeights == null) {
+                throw new IllegalArgumentException("weight model \"node\" needs node weights");
+            }
+            if (nodeWeights.length != n) {
+                throw new IllegalArgumentException("node weights must have n=" + n + " entries, got " + nodeWeights.length);
+            }
+            this.nodeWeights = nodeWeights;
+        } else {
+            this.nodeWeights = null;
+        }
         this.metrics = new Metrics();
     }
 
@@ -36,6 +79,30 @@ public class DAGShortestPath {
         }
     }
 
+    public static class WeightChange {
+        private final int u;
+        private final int v;
+        private final int weight;
+
+        public WeightChange(int u, int v, int weight) {
+            this.u = u;
+            this.v = v;
+            this.weight = weight;
+        }
+
+        public int getU() {
+            return u;
+        }
+
+        public int getV() {
+            return v;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+    }
+
     public static class ShortestPathResult {
         private final int[] dist;
         private final int[] parent;
@@ -52,6 +119,21 @@ public class DAGShortestPath {
         public int[] getParent() {
             return parent;
         }
+
+        // lazy view over parent, empty when target is unreachable
+        public PathView pathTo(int target) {
+            if (target < 0 || target >= dist.length || dist[target] == Integer.MAX_VALUE) return PathView.EMPTY;
+            return PathView.ofParents(parent, -1, target);
+        }
+
+        // path i ends at vertex i
+        public PathArena allPaths() {
+            return PathArena.build(parent, root(dist, parent, Integer.MAX_VALUE));
+        }
+
+        public PathArena pathsTo(int[] targets) {
+            return PathArena.build(parent, root(dist, parent, Integer.MAX_VALUE), targets);
+        }
     }
 
 
@@ -71,19 +153,158 @@ public class DAGShortestPath {
         public int[] getParent() {
             return parent;
         }
+
+        // lazy view over parent, empty when target is unreachable
+        public PathView pathTo(int target) {
+            if (target < 0 || target >= dist.length || dist[target] == Integer.MIN_VALUE) return PathView.EMPTY;
+            return PathView.ofParents(parent, -1, target);
+        }
+
+        // path i ends at vertex i
+        public PathArena allPaths() {
+            return PathArena.build(parent, root(dist, parent, Integer.MIN_VALUE));
+        }
+
+        public PathArena pathsTo(int[] targets) {
+            return PathArena.build(parent, root(dist, parent, Integer.MIN_VALUE), targets);
+        }
+    }
+
+    // the source of a single-source result: the only reached vertex without a parent
+    private static int root(int[] dist, int[] parent, int unreached) {
+        for (int v = 0; v < dist.length; v++) {
+            if (parent[v] == -1 && dist[v] != unreached) return v;
+        }
+        return -1;
+    }
+
+    // Distances from several sources. Sources are grouped in blocks of blockSize; inside a
+    // block the arrays are vertex-major, so the entry for (source k, vertex v) is
+    // blocks[k / blockSize][v * width + k % blockSize] where width is the size of that block.
+    public static class MultiSourceResult {
+        private final int[] sources;
+        private final int blockSize;
+        private final int[][] distBlocks;
+        private final int[][] parentBlocks;
+
+        public MultiSourceResult(int[] sources, int blockSize, int[][] distBlocks, int[][] parentBlocks) {
+            this.sources = sources;
+            this.blockSize = blockSize;
+            this.distBlocks = distBlocks;
+            this.parentBlocks = parentBlocks;
+        }
+
+        public int getSourceCount() {
+            return sources.length;
+        }
+
+        public int getSource(int sourceIndex) {
+            return sources[sourceIndex];
+        }
+
+        public int getDist(int sourceIndex, int v) {
+            return distBlocks[sourceIndex / blockSize][v * width(sourceIndex) + sourceIndex % blockSize];
+        }
+
+        public int getParent(int sourceIndex, int v) {
+            return parentBlocks[sourceIndex / blockSize][v * width(sourceIndex) + sourceIndex % blockSize];
+        }
+
+        public SourceView forSource(int sourceIndex) {
+            return new SourceView(this, sourceIndex);
+        }
+
+        public int getBlockSize() {
+            return blockSize;
+        }
+
+        public int[][] getDistBlocks() {
+            return distBlocks;
+        }
+
+        public int[][] getParentBlocks() {
+            return parentBlocks;
+        }
+
+        private int width(int sourceIndex) {
+            int block = sourceIndex / blockSize;
+            return Math.min(blockSize, sources.length - block * blockSize);
+        }
+    }
+
+    // strided view of one source's dist/parent inside a MultiSourceResult, nothing is copied
+    public static class SourceView {
+        private final int source;
+        private final int[] dist;
+        private final int[] parent;
+        private final int width;
+        private final int lane;
+
+        private SourceView(MultiSourceResult result, int sourceIndex) {
+            int block = sourceIndex / result.blockSize;
+            this.source = result.sources[sourceIndex];
+            this.dist = result.distBlocks[block];
+            this.parent = result.parentBlocks[block];
+            this.width = result.width(sourceIndex);
+            this.lane = sourceIndex % result.blockSize;
+        }
+
+        public int getSource() {
+            return source;
+        }
+
+        public int getDist(int v) {
+            return dist[v * width + lane];
+        }
+
+        public int getParent(int v) {
+            return parent[v * width + lane];
+        }
+
+        public List<Integer> reconstructPath(int target) {
+            List<Integer> path = new ArrayList<>();
+            if (target < 0 || target * width >= parent.length) return path;
+            int cur = target;
+            while (cur != -1) {
+                path.add(cur);
+                cur = getParent(cur);
+            }
+            Collections.reverse(path);
+            if (path.get(0) != source) return new ArrayList<>();
+            return path;
+        }
     }
 
     public static class CriticalPathResult {
-        private final List<Integer> path;
+        private final int[] parent;
+        private final int end;
         private final int length;
+        private volatile List<Integer> path;
 
-        public CriticalPathResult(List<Integer> path, int length) {
-            this.path = path;
+        // the path ends at end and follows parent back to its start; end -1 for no path
+        public CriticalPathResult(int[] parent, int end, int length) {
+            this.parent = parent;
+            this.end = end;
             this.length = length;
         }
 
+        // built on first use from the parent array
         public List<Integer> getPath() {
-            return path;
+            List<Integer> result = path;
+            if (result == null) {
+                result = getPathView().toList();
+                path = result;
+            }
+            return result;
+        }
+
+        public PathView getPathView() {
+            return end == -1 ? PathView.EMPTY : PathView.ofParents(parent, -1, end);
+        }
+
+        // heaviest path ending at every vertex
+        public PathArena allPaths() {
+            return PathArena.build(parent, -1);
         }
 
         public int getLength() {
@@ -94,20 +315,99 @@ public class DAGShortestPath {
     public ShortestPathResult shortestPaths(int source, List<Integer> topoOrder) {
         metrics.reset();
         metrics.startTiming();
+        if (resultCache != null) {
+            ShortestPathResult cached = resultCache.getShortest(graphVersion, source);
+            if (cached != null) {
+                metrics.addCacheHits(1);
+                metrics.stopTiming();
+                return cached;
+            }
+            metrics.addCacheMisses(1);
+        }
 
         int[] dist = new int[n];
         Arrays.fill(dist, Integer.MAX_VALUE);
-        dist[source] = 0;
+        dist[source] = startWeight(source);
 
         int[] parent = new int[n];
         Arrays.fill(parent, -1);
 
+        int[] node = nodeWeights;
+        long relaxations = 0;
         for (int u : topoOrder) {
             if (dist[u] == Integer.MAX_VALUE) continue;
-            for (WeightedEdge edge : graph.get(u)) {
-                metrics.incrementRelaxations();
-                int v = edge.getV();
-                int w = edge.getWeight();
+            long start = graph.edgeStart(u);
+            long end = graph.edgeEnd(u);
+            relaxations += end - start;
+            for (long e = start; e < end; e++) {
+                int v = graph.target(e);
+                int w = node == null ? graph.weight(e) : node[v];
+                if (dist[u] + w < dist[v]) {
+                    dist[v] = dist[u] + w;
+                    parent[v] = u;
+                }
+            }
+        }
+
+        metrics.addRelaxations(relaxations);
+        ShortestPathResult result = new ShortestPathResult(dist, parent);
+        if (resultCache != null) resultCache.putShortest(graphVersion, source, result);
+        metrics.stopTiming();
+        return result;
+    }
+
+    public ShortestPathResult shortestPath(int source, int target, List<Integer> topoOrder) {
+        return shortestPath(source, target, topoOrder, null);
+    }
+
+    // Point-to-point query: only the slice of the order between source and target is swept,
+    // edges leaving the slice (or, with reach, leading to vertices that cannot reach target)
+    // are skipped, and the sweep stops at target. Only dist[target] and the path to it are
+    // final; a cached full result for source is returned as is, partial results are not cached.
+    public ShortestPathResult shortestPath(int source, int target, List<Integer> topoOrder, Reachability reach) {
+        if (reach != null && reach.getTarget() != target) {
+            throw new IllegalArgumentException("reachability is for target " + reach.getTarget() + ", not " + target);
+        }
+        metrics.reset();
+        metrics.startTiming();
+        if (resultCache != null) {
+            ShortestPathResult cached = resultCache.getShortest(graphVersion, source);
+            if (cached != null) {
+                metrics.addCacheHits(1);
+                metrics.stopTiming();
+                return cached;
+            }
+            metrics.addCacheMisses(1);
+        }
+
+        int[] dist = new int[n];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        dist[source] = startWeight(source);
+
+        int[] parent = new int[n];
+        Arrays.fill(parent, -1);
+
+        int[] pos = positions(topoOrder);
+        int[] order = vertexAt;
+        int from = pos[source];
+        int to = pos[target];
+        if (from < 0 || to < from || (reach != null && !reach.canReach(source))) {
+            metrics.stopTiming();
+            return new ShortestPathResult(dist, parent);
+        }
+
+        int[] node = nodeWeights;
+        long relaxations = 0;
+        long touched = 0;
+        for (int i = from; i < to; i++) {
+            int u = order[i];
+            if (dist[u] == Integer.MAX_VALUE) continue;
+            touched++;
+            for (long e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                int v = graph.target(e);
+                if (pos[v] > to || (reach != null && !reach.canReach(v))) continue;
+                relaxations++;
+                int w = node == null ? graph.weight(e) : node[v];
                 if (dist[u] + w < dist[v]) {
                     dist[v] = dist[u] + w;
                     parent[v] = u;
@@ -115,27 +415,139 @@ public class DAGShortestPath {
             }
         }
 
+        metrics.addVerticesTouched(touched);
+        metrics.addRelaxations(relaxations);
         metrics.stopTiming();
         return new ShortestPathResult(dist, parent);
     }
 
+    public MultiSourceResult shortestPathsBatch(int[] sources, List<Integer> topoOrder) {
+        return shortestPathsBatch(sources, topoOrder, DEFAULT_SOURCE_BLOCK, 1);
+    }
+
+    // One sweep over the topological order per block of sources instead of one per source.
+    // Blocks are independent, with parallelism > 1 they are spread over a ForkJoinPool.
+    public MultiSourceResult shortestPathsBatch(int[] sources, List<Integer> topoOrder, int blockSize, int parallelism) {
+        if (blockSize < 1) throw new IllegalArgumentException("blockSize must be positive: " + blockSize);
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        metrics.reset();
+        metrics.startTiming();
+
+        int[] order = new int[topoOrder.size()];
+        int i = 0;
+        for (int u : topoOrder) order[i++] = u;
+
+        int blocks = (sources.length + blockSize - 1) / blockSize;
+        int[][] distBlocks = new int[blocks][];
+        int[][] parentBlocks = new int[blocks][];
+        long[] relaxations = new long[blocks];
+
+        if (parallelism == 1 || blocks == 1) {
+            for (int b = 0; b < blocks; b++) {
+                relaxations[b] = sweepBlock(sources, b, blockSize, order, distBlocks, parentBlocks);
+            }
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                List<RecursiveAction> tasks = new ArrayList<>();
+                for (int b = 0; b < blocks; b++) {
+                    int block = b;
+                    tasks.add(new RecursiveAction() {
+                        @Override
+                        protected void compute() {
+                            relaxations[block] = sweepBlock(sources, block, blockSize, order, distBlocks, parentBlocks);
+                        }
+                    });
+                }
+                pool.invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        invokeAll(tasks);
+                    }
+                });
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        for (long count : relaxations) metrics.addRelaxations(count);
+        metrics.stopTiming();
+        return new MultiSourceResult(sources.clone(), blockSize, distBlocks, parentBlocks);
+    }
+
+    // returns the number of relaxations, one per edge and source lane
+    private long sweepBlock(int[] sources, int block, int blockSize, int[] order, int[][] distBlocks, int[][] parentBlocks) {
+        int first = block * blockSize;
+        int width = Math.min(blockSize, sources.length - first);
+        int[] dist = new int[n * width];
+        int[] parent = new int[n * width];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(parent, -1);
+        boolean[] reached = new boolean[n];
+        for (int k = 0; k < width; k++) {
+            dist[sources[first + k] * width + k] = startWeight(sources[first + k]);
+            reached[sources[first + k]] = true;
+        }
+
+        int[] node = nodeWeights;
+        long relaxations = 0;
+        for (int u : order) {
+            if (!reached[u]) continue;
+            int ub = u * width;
+            long start = graph.edgeStart(u);
+            long end = graph.edgeEnd(u);
+            relaxations += (end - start) * width;
+            for (long e = start; e < end; e++) {
+                int v = graph.target(e);
+                int w = node == null ? graph.weight(e) : node[v];
+                int vb = v * width;
+                // contiguous lanes of u and v, one per source in the block
+                for (int k = 0; k < width; k++) {
+                    int du = dist[ub + k];
+                    if (du != Integer.MAX_VALUE && du + w < dist[vb + k]) {
+                        dist[vb + k] = du + w;
+                        parent[vb + k] = u;
+                    }
+                }
+                reached[v] = true;
+            }
+        }
+
+        distBlocks[block] = dist;
+        parentBlocks[block] = parent;
+        return relaxations;
+    }
+
     public LongestPathResult longestPath(int source, List<Integer> topoOrder) {
         metrics.reset();
         metrics.startTiming();
+        if (resultCache != null) {
+            LongestPathResult cached = resultCache.getLongest(graphVersion, source);
+            if (cached != null) {
+                metrics.addCacheHits(1);
+                metrics.stopTiming();
+                return cached;
+            }
+            metrics.addCacheMisses(1);
+        }
 
         int[] dist = new int[n];
         Arrays.fill(dist, Integer.MIN_VALUE);
-        dist[source] = 0;
+        dist[source] = startWeight(source);
 
         int[] parent = new int[n];
         Arrays.fill(parent, -1);
 
+        int[] node = nodeWeights;
+        long relaxations = 0;
         for (int u : topoOrder) {
             if (dist[u] == Integer.MIN_VALUE) continue;
-            for (WeightedEdge edge : graph.get(u)) {
-                metrics.incrementRelaxations();
-                int v = edge.getV();
-                int w = edge.getWeight();
+            long start = graph.edgeStart(u);
+            long end = graph.edgeEnd(u);
+            relaxations += end - start;
+            for (long e = start; e < end; e++) {
+                int v = graph.target(e);
+                int w = node == null ? graph.weight(e) : node[v];
                 if (dist[u] + w > dist[v]) {
                     dist[v] = dist[u] + w;
                     parent[v] = u;
@@ -143,8 +555,11 @@ public class DAGShortestPath {
             }
         }
 
+        metrics.addRelaxations(relaxations);
+        LongestPathResult result = new LongestPathResult(dist, parent);
+        if (resultCache != null) resultCache.putLongest(graphVersion, source, result);
         metrics.stopTiming();
-        return new LongestPathResult(dist, parent);
+        return result;
     }
 
     public CriticalPathResult findCriticalPath(List<Integer> topoOrder) {
@@ -156,17 +571,21 @@ public class DAGShortestPath {
         int[] parent = new int[n];
         Arrays.fill(parent, -1);
 
-        // treat every node as potential start with distance 0
+        // treat every node as potential start, at distance 0 or its own node weight
         for (int u : topoOrder) {
-            dist[u] = Math.max(dist[u], 0);
+            dist[u] = Math.max(dist[u], startWeight(u));
         }
 
+        int[] node = nodeWeights;
+        long relaxations = 0;
         for (int u : topoOrder) {
             if (dist[u] == Integer.MIN_VALUE) continue;
-            for (WeightedEdge edge : graph.get(u)) {
-                metrics.incrementRelaxations();
-                int v = edge.getV();
-                int w = edge.getWeight();
+            long start = graph.edgeStart(u);
+            long end = graph.edgeEnd(u);
+            relaxations += end - start;
+            for (long e = start; e < end; e++) {
+                int v = graph.target(e);
+                int w = node == null ? graph.weight(e) : node[v];
                 if (dist[u] + w > dist[v]) {
                     dist[v] = dist[u] + w;
                     parent[v] = u;
@@ -174,6 +593,8 @@ public class DAGShortestPath {
             }
         }
 
+        metrics.addRelaxations(relaxations);
+
         // find best endpoint
         int maxDist = Integer.MIN_VALUE;
         int target = -1;
@@ -184,60 +605,253 @@ public class DAGShortestPath {
             }
         }
 
-        List<Integer> path = new ArrayList<>();
-        if (target != -1) {
-            int cur = target;
-            while (cur != -1) {
-                path.add(cur);
-                cur = parent[cur];
-            }
-            Collections.reverse(path);
-        }
+        metrics.stopTiming();
+        return new CriticalPathResult(parent, target, maxDist == Integer.MIN_VALUE ? 0 : maxDist);
+    }
+
+
+    // Applies the weight changes and repairs a previous shortestPaths(source, topoOrder) result.
+    // Only vertices whose distance can change are revisited: the heads of the changed edges
+    // first, then the successors of every vertex whose distance actually moved, in
+    // topological order. verticesTouched in the metrics counts the revisited vertices.
+    public ShortestPathResult updateShortestPaths(ShortestPathResult previous, int source,
+                                                  List<Integer> topoOrder, List<WeightChange> changes) {
+        metrics.reset();
+        metrics.startTiming();
+        applyChanges(changes);
+        int[] dist = previous.getDist().clone();
+        int[] parent = previous.getParent().clone();
+        repair(dist, parent, source, topoOrder, changes, false);
+        ShortestPathResult result = new ShortestPathResult(dist, parent);
+        if (resultCache != null) resultCache.putShortest(graphVersion, source, result);
+        metrics.stopTiming();
+        return result;
+    }
 
+    public LongestPathResult updateLongestPath(LongestPathResult previous, int source,
+                                               List<Integer> topoOrder, List<WeightChange> changes) {
+        metrics.reset();
+        metrics.startTiming();
+        applyChanges(changes);
+        int[] dist = previous.getDist().clone();
+        int[] parent = previous.getParent().clone();
+        repair(dist, parent, source, topoOrder, changes, true);
+        LongestPathResult result = new LongestPathResult(dist, parent);
+        if (resultCache != null) resultCache.putLongest(graphVersion, source, result);
         metrics.stopTiming();
-        return new CriticalPathResult(path, maxDist == Integer.MIN_VALUE ? 0 : maxDist);
+        return result;
     }
 
+    // sets the weight of every u -> v edge; the first change copies the weights (or the whole
+    // graph when it is not heap CSR) so the graph this instance was built from is never modified
+    private void applyChanges(List<WeightChange> changes) {
+        if (nodeWeights != null) {
+            throw new UnsupportedOperationException("edge weight changes do not apply to weight model \"node\"");
+        }
+        if (editable == null) {
+            editable = graph instanceof CSRGraph csr
+                    ? csr.withWeights(csr.getWeights().clone())
+                    : CSRGraph.copyOf(graph);
+            graph = editable;
+        }
+        int[] offsets = editable.getOffsets();
+        int[] targets = editable.getTargets();
+        int[] weights = editable.getWeights();
+        // every change is checked before any weight is written, so a bad batch changes nothing
+        for (WeightChange change : changes) {
+            int u = change.getU();
+            boolean found = false;
+            if (u >= 0 && u < n) {
+                for (int e = offsets[u]; e < offsets[u + 1] && !found; e++) {
+                    found = targets[e] == change.getV();
+                }
+            }
+            if (!found) {
+                throw new IllegalArgumentException("No edge " + change.getU() + " -> " + change.getV());
+            }
+        }
+        for (WeightChange change : changes) {
+            for (int e = offsets[change.getU()]; e < offsets[change.getU() + 1]; e++) {
+                if (targets[e] == change.getV()) {
+                    weights[e] = change.getWeight();
+                }
+            }
+        }
+        graphVersion++;
+        if (resultCache != null) resultCache.invalidate(graphVersion);
+    }
 
-    public List<Integer> reconstructPath(int source, int target, int[] parent) {
-        List<Integer> path = new ArrayList<>();
-        if (target < 0 || target >= parent.length) return path;
-        int cur = target;
-        while (cur != -1) {
-            path.add(cur);
-            cur = parent[cur];
+    private void repair(int[] dist, int[] parent, int source, List<Integer> topoOrder,
+                        List<WeightChange> changes, boolean longest) {
+        int unreached = longest ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        int[] pos = positions(topoOrder);
+        buildReverseIndex();
+        int[] offsets = editable.getOffsets();
+        int[] targets = editable.getTargets();
+        int[] weights = editable.getWeights();
+
+        int[] order = vertexAt;
+        if (queued == null) queued = new boolean[n];
+        IntMinHeap heap = new IntMinHeap();
+        for (WeightChange change : changes) {
+            int v = change.getV();
+            if (pos[v] >= 0 && !queued[v]) {
+                queued[v] = true;
+                heap.push(pos[v]);
+            }
         }
-        Collections.reverse(path);
-        if (path.isEmpty() || path.get(0) != source) {
-            return new ArrayList<>(); // no valid path from source to target
+
+        long touched = 0;
+        long relaxations = 0;
+        while (!heap.isEmpty()) {
+            int v = order[heap.pop()];
+            queued[v] = false;
+            touched++;
+            if (v == source) continue;
+
+            int best = unreached;
+            int bestParent = -1;
+            for (int r = reverseOffsets[v]; r < reverseOffsets[v + 1]; r++) {
+                int u = reverseSources[r];
+                if (pos[u] < 0 || dist[u] == unreached) continue;
+                relaxations++;
+                int candidate = dist[u] + weights[reverseEdges[r]];
+                if (longest ? candidate > best : candidate < best) {
+                    best = candidate;
+                    bestParent = u;
+                }
+            }
+
+            boolean changed = best != dist[v];
+            dist[v] = best;
+            parent[v] = bestParent;
+            if (!changed) continue;
+
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int w = targets[e];
+                if (pos[w] >= 0 && !queued[w]) {
+                    queued[w] = true;
+                    heap.push(pos[w]);
+                }
+            }
         }
-        return path;
+        metrics.addVerticesTouched(touched);
+        metrics.addRelaxations(relaxations);
     }
 
-    public static DAGShortestPath fromGraphLoader(GraphLoader.Graph graph) {
-        int n = graph.getN();
-        List<List<WeightedEdge>> adj = new ArrayList<>();
-        for (int i = 0; i < n; i++) adj.add(new ArrayList<>());
+    // position of every vertex in the topological order and its inverse (vertexAt), refilled
+    // on every call: the caller may have reordered the same list in place since the last one
+    private int[] positions(List<Integer> topoOrder) {
+        if (position == null) {
+            position = new int[n];
+            vertexAt = new int[n];
+        }
+        Arrays.fill(position, -1);
+        int i = 0;
+        for (int u : topoOrder) {
+            position[u] = i;
+            vertexAt[i++] = u;
+        }
+        return position;
+    }
 
-        for (GraphLoader.Edge e : graph.getEdges()) {
-            adj.get(e.getU()).add(new WeightedEdge(e.getV(), e.getW()));
+    private void buildReverseIndex() {
+        if (reverseOffsets != null) return;
+        int[] offsets = editable.getOffsets();
+        int[] targets = editable.getTargets();
+        int m = editable.getEdgeCount();
+        int[] rOffsets = new int[n + 1];
+        for (int e = 0; e < m; e++) rOffsets[targets[e] + 1]++;
+        for (int v = 0; v < n; v++) rOffsets[v + 1] += rOffsets[v];
+        int[] next = Arrays.copyOf(rOffsets, n);
+        int[] sources = new int[m];
+        int[] edges = new int[m];
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int slot = next[targets[e]]++;
+                sources[slot] = u;
+                edges[slot] = e;
+            }
         }
+        reverseOffsets = rOffsets;
+        reverseSources = sources;
+        reverseEdges = edges;
+    }
 
-        return new DAGShortestPath(adj, n, graph.getWeightModel());
+    private int startWeight(int source) {
+        return nodeWeights == null ? 0 : nodeWeights[source];
+    }
+
+    // empty when the chain from target does not start at source; PathView.ofParents avoids the list
+    public List<Integer> reconstructPath(int source, int target, int[] parent) {
+        return PathView.ofParents(parent, source, target).toList();
+    }
+
+    public static DAGShortestPath fromGraphLoader(GraphLoader.Graph graph) {
+        return new DAGShortestPath(graph.toAdjacency(), graph.getWeightModel(), graph.getNodeWeights());
     }
 
     public static DAGShortestPath fromAdjacency(List<List<WeightedEdge>> adj, int n, String weightModel) {
         return new DAGShortestPath(adj, n, weightModel);
     }
 
+    private static CSRGraph toCSR(List<List<WeightedEdge>> adj, int n) {
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = offsets[u] + adj.get(u).size();
+        }
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        int pos = 0;
+        for (int u = 0; u < n; u++) {
+            for (WeightedEdge edge : adj.get(u)) {
+                targets[pos] = edge.getV();
+                weights[pos] = edge.getWeight();
+                pos++;
+            }
+        }
+        return new CSRGraph(n, offsets, targets, weights);
+    }
+
+    public GraphAdjacency getGraph() {
+        return graph;
+    }
+
     public Metrics getMetrics() {
         return metrics;
     }
 
+    // Metrics.DISABLED turns off counting and timing
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
     public String getWeightModel() {
         return weightModel;
     }
 
+    // Shortest and longest results are looked up in the cache before a sweep and stored after
+    // one; cacheHits and cacheMisses in the metrics count the lookups. Weight changes move the
+    // graph to a new version, which drops the cached results of the old one. Cached results are
+    // shared with every caller, not copied.
+    public void setResultCache(PathResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    public PathResultCache getResultCache() {
+        return resultCache;
+    }
+
+    // incremented by every batch of weight changes
+    public long getGraphVersion() {
+        return graphVersion;
+    }
+
+    // null unless the weight model is "node"
+    public int[] getNodeWeights() {
+        return nodeWeights;
+    }
+
     public int getN() {
         return n;
     }
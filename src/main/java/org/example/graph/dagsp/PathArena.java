@@ -0,0 +1,132 @@
+package org.example.graph.dagsp;
+
+// Many paths of one parent array in a single int[]: path i is vertices[offsets[i]] ..
+// vertices[offsets[i + 1] - 1], first vertex first, and is empty when its target has no path.
+// Lengths come from one memoized pass over the parent array. For all vertices the paths are
+// written in order of length, each as a copy of its parent's path plus one vertex.
+public class PathArena {
+    private final int[] targets;
+    private final int[] offsets;
+    private final int[] vertices;
+
+    private PathArena(int[] targets, int[] offsets, int[] vertices) {
+        this.targets = targets;
+        this.offsets = offsets;
+        this.vertices = vertices;
+    }
+
+    // the path to every vertex, path i ends at vertex i; see PathView.ofParents for source
+    public static PathArena build(int[] parent, int source) {
+        int n = parent.length;
+        int[] length = lengths(parent, source);
+        int[] offsets = offsets(length, null);
+
+        // counting sort by length, so a parent's path is in place before its children copy it
+        int maxLength = 0;
+        for (int len : length) maxLength = Math.max(maxLength, len);
+        int[] start = new int[maxLength + 2];
+        for (int len : length) start[len + 1]++;
+        for (int d = 0; d <= maxLength; d++) start[d + 1] += start[d];
+        int[] byLength = new int[n];
+        for (int v = 0; v < n; v++) byLength[start[length[v]]++] = v;
+
+        int[] vertices = new int[offsets[n]];
+        for (int v : byLength) {
+            int len = length[v];
+            if (len == 0) continue;
+            if (len > 1) System.arraycopy(vertices, offsets[parent[v]], vertices, offsets[v], len - 1);
+            vertices[offsets[v] + len - 1] = v;
+        }
+        return new PathArena(null, offsets, vertices);
+    }
+
+    // the paths to the given targets only, path i ends at targets[i]
+    public static PathArena build(int[] parent, int source, int[] targets) {
+        int[] length = lengths(parent, source);
+        int[] offsets = offsets(length, targets);
+        int[] vertices = new int[offsets[targets.length]];
+        for (int i = 0; i < targets.length; i++) {
+            int v = targets[i];
+            for (int pos = offsets[i + 1] - 1; pos >= offsets[i]; pos--) {
+                vertices[pos] = v;
+                v = parent[v];
+            }
+        }
+        return new PathArena(targets.clone(), offsets, vertices);
+    }
+
+    // vertices on the path to every vertex, 0 when its chain does not start at source
+    private static int[] lengths(int[] parent, int source) {
+        int n = parent.length;
+        int[] length = new int[n];
+        java.util.Arrays.fill(length, -1);
+        int[] stack = new int[n];
+        for (int v = 0; v < n; v++) {
+            if (length[v] >= 0) continue;
+            int top = 0;
+            int u = v;
+            while (u != -1 && length[u] == -1) {
+                length[u] = -2; // on the stack
+                stack[top++] = u;
+                u = parent[u];
+            }
+            if (u != -1 && length[u] == -2) {
+                throw new IllegalStateException("parent array has a cycle through " + u);
+            }
+            int len;
+            if (u == -1) {
+                int root = stack[top - 1];
+                len = source >= 0 && root != source ? 0 : 1;
+                length[root] = len;
+                top--;
+            } else {
+                len = length[u];
+            }
+            while (top > 0) {
+                int w = stack[--top];
+                if (len != 0) len++;
+                length[w] = len;
+            }
+        }
+        return length;
+    }
+
+    private static int[] offsets(int[] length, int[] targets) {
+        int count = targets == null ? length.length : targets.length;
+        int[] offsets = new int[count + 1];
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += length[targets == null ? i : targets[i]];
+            if (total > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("paths hold more than " + (Integer.MAX_VALUE - 8) + " vertices");
+            }
+            offsets[i + 1] = (int) total;
+        }
+        return offsets;
+    }
+
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    public int getTarget(int i) {
+        return targets == null ? i : targets[i];
+    }
+
+    public PathView path(int i) {
+        return PathView.ofSlice(vertices, offsets[i], offsets[i + 1]);
+    }
+
+    public int length(int i) {
+        return offsets[i + 1] - offsets[i];
+    }
+
+    // shared, not copied
+    public int[] getVertices() {
+        return vertices;
+    }
+
+    public int[] getOffsets() {
+        return offsets;
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.graph.dagsp;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Size-bounded LRU cache of single-source results for one graph, keyed by (graph version,
+// source, kind). Results are shared, not copied, so their dist and parent arrays must be
+// treated as read-only. Seeing a newer graph version drops every older entry; a lookup or
+// put with an older version is ignored. All queries are assumed to use the same topological
+// order. Thread-safe: results are computed outside the lock, so two threads missing on the
+// same key may both compute it and the first put wins.
+public class PathResultCache {
+    // array headers and the result object itself, roughly, on a 64-bit JVM
+    private static final long RESULT_OVERHEAD = 64;
+
+    public enum Kind {
+        SHORTEST,
+        LONGEST
+    }
+
+    private static final class Entry {
+        final Object result;
+        final long bytes;
+
+        Entry(Object result, long bytes) {
+            this.result = result;
+            this.bytes = bytes;
+        }
+    }
+
+    private final long maxBytes;
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long version;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public PathResultCache(long maxBytes) {
+        if (maxBytes < 0) throw new IllegalArgumentException("maxBytes must not be negative: " + maxBytes);
+        this.maxBytes = maxBytes;
+    }
+
+    // bytes a result over n vertices holds: dist and parent
+    public static long sizeOf(int n) {
+        return 8L * n + RESULT_OVERHEAD;
+    }
+
+    public DAGShortestPath.ShortestPathResult getShortest(long version, int source) {
+        return (DAGShortestPath.ShortestPathResult) get(version, source, Kind.SHORTEST);
+    }
+
+    public DAGShortestPath.LongestPathResult getLongest(long version, int source) {
+        return (DAGShortestPath.LongestPathResult) get(version, source, Kind.LONGEST);
+    }
+
+    public void putShortest(long version, int source, DAGShortestPath.ShortestPathResult result) {
+        put(version, source, Kind.SHORTEST, result, sizeOf(result.getDist().length));
+    }
+
+    public void putLongest(long version, int source, DAGShortestPath.LongestPathResult result) {
+        put(version, source, Kind.LONGEST, result, sizeOf(result.getDist().length));
+    }
+
+    private synchronized Object get(long version, int source, Kind kind) {
+        if (version > this.version) invalidate(version);
+        Entry entry = version == this.version ? entries.get(key(source, kind)) : null;
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.result;
+    }
+
+    private synchronized void put(long version, int source, Kind kind, Object result, long size) {
+        if (version > this.version) invalidate(version);
+        if (version < this.version || size > maxBytes) return;
+        Long key = key(source, kind);
+        if (entries.containsKey(key)) return;
+        entries.put(key, new Entry(result, size));
+        bytes += size;
+        Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes) {
+            bytes -= eldest.next().getValue().bytes;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    // the graph changed: every entry older than version is dropped
+    public synchronized void invalidate(long version) {
+        if (version <= this.version) return;
+        this.version = version;
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    private static Long key(int source, Kind kind) {
+        return ((long) source << 1) | kind.ordinal();
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+}
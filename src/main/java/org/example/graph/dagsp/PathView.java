@@ -0,0 +1,179 @@
+package org.example.graph.dagsp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+// Read-only path, either a chain in a parent array or a slice of an int array (e.g. a
+// PathArena). A chain is walked from the target backwards and never materialized: forward
+// iteration keeps a vertex every sqrt(length) positions and expands one block at a time, so
+// it takes O(length) time and O(sqrt(length)) ints. Nothing is boxed unless toList() is used.
+public final class PathView {
+    public static final PathView EMPTY = new PathView(null, -1, -1, new int[0], 0, 0);
+
+    private final int[] parent;
+    private final int source;
+    private final int target;
+    private final int[] vertices;
+    private final int from;
+    private final int to;
+    private int length = -1;
+
+    private PathView(int[] parent, int source, int target, int[] vertices, int from, int to) {
+        this.parent = parent;
+        this.source = source;
+        this.target = target;
+        this.vertices = vertices;
+        this.from = from;
+        this.to = to;
+    }
+
+    // the chain target, parent[target], ... up to a vertex with parent -1; with source >= 0
+    // the path is empty unless that vertex is source
+    public static PathView ofParents(int[] parent, int source, int target) {
+        if (target < 0 || target >= parent.length) return EMPTY;
+        return new PathView(parent, source, target, null, 0, 0);
+    }
+
+    // vertices[from] .. vertices[to - 1], shared, not copied
+    public static PathView ofSlice(int[] vertices, int from, int to) {
+        return new PathView(null, -1, -1, vertices, from, to);
+    }
+
+    // number of vertices, 0 when there is no path
+    public int length() {
+        if (length < 0) {
+            if (parent == null) {
+                length = to - from;
+            } else {
+                int count = 0;
+                int root = target;
+                for (int v = target; v != -1; v = parent[v]) {
+                    if (++count > parent.length) {
+                        throw new IllegalStateException("parent array has a cycle through " + target);
+                    }
+                    root = v;
+                }
+                length = source >= 0 && root != source ? 0 : count;
+            }
+        }
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length() == 0;
+    }
+
+    public int first() {
+        return get(0);
+    }
+
+    public int last() {
+        if (isEmpty()) throw new NoSuchElementException("empty path");
+        return parent == null ? vertices[to - 1] : target;
+    }
+
+    // O(length) for a chain
+    public int get(int index) {
+        int len = length();
+        if (index < 0 || index >= len) throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + len);
+        if (parent == null) return vertices[from + index];
+        int v = target;
+        for (int steps = len - 1 - index; steps > 0; steps--) v = parent[v];
+        return v;
+    }
+
+    // vertices from the first to the last
+    public PrimitiveIterator.OfInt iterator() {
+        if (parent == null) {
+            return new PrimitiveIterator.OfInt() {
+                private int next = from;
+
+                @Override
+                public boolean hasNext() {
+                    return next < to;
+                }
+
+                @Override
+                public int nextInt() {
+                    if (next >= to) throw new NoSuchElementException();
+                    return vertices[next++];
+                }
+            };
+        }
+        return new ChainIterator();
+    }
+
+    public void forEach(IntConsumer action) {
+        if (parent == null) {
+            for (int i = from; i < to; i++) action.accept(vertices[i]);
+            return;
+        }
+        PrimitiveIterator.OfInt it = new ChainIterator();
+        while (it.hasNext()) action.accept(it.nextInt());
+    }
+
+    public int[] toArray() {
+        int len = length();
+        int[] result = new int[len];
+        if (parent == null) {
+            System.arraycopy(vertices, from, result, 0, len);
+        } else {
+            int v = target;
+            for (int i = len - 1; i >= 0; i--) {
+                result[i] = v;
+                v = parent[v];
+            }
+        }
+        return result;
+    }
+
+    public List<Integer> toList() {
+        int[] array = toArray();
+        List<Integer> result = new ArrayList<>(array.length);
+        for (int v : array) result.add(v);
+        return result;
+    }
+
+    // block b covers positions [b * block, (b + 1) * block); its last vertex is kept in ends[b]
+    private final class ChainIterator implements PrimitiveIterator.OfInt {
+        private final int len = length();
+        private final int block = Math.max(1, (int) Math.ceil(Math.sqrt(len)));
+        private final int[] ends = new int[(len + block - 1) / block];
+        private final int[] buffer = new int[Math.min(block, len)];
+        private int nextBlock;
+        private int position;
+        private int limit;
+
+        ChainIterator() {
+            int v = target;
+            for (int pos = len - 1; pos >= 0; pos--) {
+                if (pos % block == block - 1 || pos == len - 1) ends[pos / block] = v;
+                v = parent[v];
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < limit || nextBlock < ends.length;
+        }
+
+        @Override
+        public int nextInt() {
+            if (position == limit) {
+                if (nextBlock == ends.length) throw new NoSuchElementException();
+                int size = Math.min(block, len - nextBlock * block);
+                int v = ends[nextBlock++];
+                for (int i = size - 1; i >= 0; i--) {
+                    buffer[i] = v;
+                    v = parent[v];
+                }
+                position = 0;
+                limit = size;
+            }
+            return buffer[position++];
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.graph.dagsp;
+
+import org.example.util.CSRGraph;
+import org.example.util.GraphAdjacency;
+import org.example.util.IntArrayList;
+
+// The vertices that can reach one target, as a bit set. Built once per target by a
+// walk over the reversed edges and reused for every source asked about that target.
+public class Reachability {
+    private final int target;
+    private final long[] bits;
+    private final int count;
+
+    private Reachability(int target, long[] bits, int count) {
+        this.target = target;
+        this.bits = bits;
+        this.count = count;
+    }
+
+    // transposes the graph first; pass a transposed CSR to ancestorsOf when asking about several targets
+    public static Reachability to(GraphAdjacency graph, int target) {
+        CSRGraph csr = graph instanceof CSRGraph g ? g : CSRGraph.copyOf(graph);
+        return ancestorsOf(csr.transpose(), target);
+    }
+
+    public static Reachability ancestorsOf(CSRGraph transposed, int target) {
+        int n = transposed.getN();
+        if (target < 0 || target >= n) {
+            throw new IllegalArgumentException("target " + target + " out of range for n=" + n);
+        }
+        int[] offsets = transposed.getOffsets();
+        int[] sources = transposed.getTargets();
+        long[] bits = new long[(n + 63) >>> 6];
+        IntArrayList stack = new IntArrayList();
+        bits[target >>> 6] |= 1L << target;
+        stack.add(target);
+        int count = 1;
+        while (!stack.isEmpty()) {
+            int v = stack.removeLast();
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int u = sources[e];
+                if ((bits[u >>> 6] & (1L << u)) == 0) {
+                    bits[u >>> 6] |= 1L << u;
+                    stack.add(u);
+                    count++;
+                }
+            }
+        }
+        return new Reachability(target, bits, count);
+    }
+
+    public boolean canReach(int v) {
+        return (bits[v >>> 6] & (1L << v)) != 0;
+    }
+
+    public int getTarget() {
+        return target;
+    }
+
+    // vertices that can reach the target, the target included
+    public int size() {
+        return count;
+    }
+}
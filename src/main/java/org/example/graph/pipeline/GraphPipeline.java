@@ -0,0 +1,290 @@
+package org.example.graph.pipeline;
+
+import org.example.graph.dagsp.CondensedPaths;
+import org.example.graph.dagsp.CriticalPathAnalysis;
+import org.example.graph.dagsp.DAGShortestPath;
+import org.example.graph.dagsp.PathResultCache;
+import org.example.graph.dagsp.Reachability;
+import org.example.graph.scc.TarjanSCC;
+import org.example.graph.topo.TopologicalSort;
+import org.example.util.CSRGraph;
+import org.example.util.GraphAdjacency;
+import org.example.util.GraphLoader;
+import org.example.util.Metrics;
+import org.example.util.Tracer;
+
+import java.util.*;
+
+// Lazily computed, memoized stages of the SCC -> condensation -> topological order -> DAG path
+// pipeline over one graph. A stage is built on first use from the stages before it and reused
+// by every later query, so another source or a longest instead of a shortest path only costs
+// the final relaxation sweep, and a repeated query costs nothing.
+public class GraphPipeline {
+    // default budget for memoized shortest/longest results
+    public static final long DEFAULT_RESULT_BYTES = 64L << 20;
+
+    private final GraphLoader.Graph loaded;
+    private final String weightModel;
+    private final int[] nodeWeights;
+    private final int defaultSource;
+    private Tracer tracer = Tracer.DISABLED;
+
+    private GraphAdjacency adjacency;
+    private TarjanSCC tarjan;
+    private List<List<Integer>> sccs;
+    private CSRGraph condensation;
+    private TopologicalSort topo;
+    private List<Integer> condensationOrder;
+    private List<Integer> order;
+    private DAGShortestPath paths;
+    private PathResultCache results = new PathResultCache(DEFAULT_RESULT_BYTES);
+    private DAGShortestPath.CriticalPathResult critical;
+    private long criticalVersion;
+    private CriticalPathAnalysis.Schedule schedule;
+    private long scheduleVersion;
+    private final Map<CondensedPaths.IntraCost, CondensedPaths> condensedPaths = new EnumMap<>(CondensedPaths.IntraCost.class);
+
+    public GraphPipeline(GraphLoader.Graph graph) {
+        this.loaded = graph;
+        this.weightModel = graph.getWeightModel();
+        this.nodeWeights = graph.getNodeWeights();
+        this.defaultSource = graph.getSource();
+    }
+
+    public GraphPipeline(GraphAdjacency adjacency, String weightModel, int defaultSource) {
+        this(adjacency, weightModel, null, defaultSource);
+    }
+
+    public GraphPipeline(GraphAdjacency adjacency, String weightModel, int[] nodeWeights, int defaultSource) {
+        this.loaded = null;
+        this.adjacency = adjacency;
+        this.weightModel = weightModel;
+        this.nodeWeights = nodeWeights;
+        this.defaultSource = defaultSource;
+    }
+
+    // spans for the stages that still have to be computed go to this tracer
+    public synchronized void setTracer(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    public synchronized GraphAdjacency getAdjacency() {
+        if (adjacency == null) {
+            try (Tracer.Span span = tracer.span("adjacency")) {
+                adjacency = loaded.toAdjacency();
+                span.counter("edges", adjacency.getM());
+            }
+        }
+        return adjacency;
+    }
+
+    public synchronized List<List<Integer>> getSCCs() {
+        if (sccs == null) {
+            GraphAdjacency graph = getAdjacency();
+            try (Tracer.Span span = tracer.span("scc")) {
+                tarjan = new TarjanSCC(graph);
+                sccs = Collections.unmodifiableList(tarjan.findSCCsIterative());
+                span.metrics(tarjan.getMetrics()).counter("components", sccs.size());
+            }
+        }
+        return sccs;
+    }
+
+    // component id of every vertex; shared, not copied
+    public synchronized int[] getComponentIds() {
+        getSCCs();
+        return tarjan.getComponentIds();
+    }
+
+    public synchronized CSRGraph getCondensation() {
+        if (condensation == null) {
+            getSCCs();
+            try (Tracer.Span span = tracer.span("condensation")) {
+                condensation = tarjan.buildCondensationCSR();
+                span.counter("edges", condensation.getEdgeCount());
+            }
+        }
+        return condensation;
+    }
+
+    // topological order of the condensation's components
+    public synchronized List<Integer> getCondensationOrder() {
+        if (condensationOrder == null) {
+            CSRGraph dag = getCondensation();
+            try (Tracer.Span span = tracer.span("topo_sort")) {
+                topo = new TopologicalSort(dag);
+                condensationOrder = Collections.unmodifiableList(topo.kahnSort());
+                span.metrics(topo.getMetrics());
+            }
+        }
+        return condensationOrder;
+    }
+
+    // every original vertex, components in topological order
+    public synchronized List<Integer> getTopologicalOrder() {
+        if (order == null) {
+            List<Integer> componentOrder = getCondensationOrder();
+            try (Tracer.Span span = tracer.span("order_expansion")) {
+                order = Collections.unmodifiableList(topo.sortOriginalVertices(sccs, componentOrder));
+                span.counter("vertices", order.size());
+            }
+        }
+        return order;
+    }
+
+    public synchronized DAGShortestPath getPathEngine() {
+        if (paths == null) {
+            GraphAdjacency graph = getAdjacency();
+            try (Tracer.Span span = tracer.span("dagsp_setup")) {
+                paths = new DAGShortestPath(graph, weightModel, nodeWeights);
+                span.counter("vertices", paths.getN());
+            }
+        }
+        return paths;
+    }
+
+    // path engine over the condensation, one per intra-component cost rule
+    public synchronized CondensedPaths getCondensedPaths(CondensedPaths.IntraCost intraCost) {
+        CondensedPaths engine = condensedPaths.get(intraCost);
+        if (engine == null) {
+            List<Integer> componentOrder = getCondensationOrder();
+            try (Tracer.Span span = tracer.span("condensed_setup")) {
+                int[] weights = "node".equals(weightModel) ? nodeWeights : null;
+                engine = new CondensedPaths(adjacency, tarjan.getComponentIds(), sccs.size(), componentOrder, intraCost, weights);
+                span.counter("edges", engine.getDagEdgeCount());
+            }
+            condensedPaths.put(intraCost, engine);
+        }
+        return engine;
+    }
+
+    public DAGShortestPath.ShortestPathResult shortestPaths() {
+        return shortestPaths(defaultSource);
+    }
+
+    public synchronized DAGShortestPath.ShortestPathResult shortestPaths(int source) {
+        DAGShortestPath.ShortestPathResult result = results.getShortest(graphVersion(), source);
+        if (result == null) {
+            List<Integer> topoOrder = getTopologicalOrder();
+            DAGShortestPath engine = getPathEngine();
+            try (Tracer.Span span = tracer.span("relaxation")) {
+                result = engine.shortestPaths(source, topoOrder);
+                span.metrics(engine.getMetrics());
+            }
+            results.putShortest(engine.getGraphVersion(), source, result);
+        }
+        return result;
+    }
+
+    public DAGShortestPath.ShortestPathResult shortestPath(int source, int target) {
+        return shortestPath(source, target, null);
+    }
+
+    // point-to-point query, only dist[target] and its path are final; a memoized full
+    // result for source is reused, the partial result is not memoized
+    public synchronized DAGShortestPath.ShortestPathResult shortestPath(int source, int target, Reachability reach) {
+        DAGShortestPath.ShortestPathResult result = results.getShortest(graphVersion(), source);
+        if (result == null) {
+            List<Integer> topoOrder = getTopologicalOrder();
+            DAGShortestPath engine = getPathEngine();
+            try (Tracer.Span span = tracer.span("relaxation")) {
+                result = engine.shortestPath(source, target, topoOrder, reach);
+                span.metrics(engine.getMetrics());
+            }
+        }
+        return result;
+    }
+
+    public DAGShortestPath.LongestPathResult longestPath() {
+        return longestPath(defaultSource);
+    }
+
+    public synchronized DAGShortestPath.LongestPathResult longestPath(int source) {
+        DAGShortestPath.LongestPathResult result = results.getLongest(graphVersion(), source);
+        if (result == null) {
+            List<Integer> topoOrder = getTopologicalOrder();
+            DAGShortestPath engine = getPathEngine();
+            try (Tracer.Span span = tracer.span("relaxation")) {
+                result = engine.longestPath(source, topoOrder);
+                span.metrics(engine.getMetrics());
+            }
+            results.putLongest(engine.getGraphVersion(), source, result);
+        }
+        return result;
+    }
+
+    // weight changes made through getPathEngine() move to a new version and drop old results
+    private long graphVersion() {
+        return paths == null ? 0 : paths.getGraphVersion();
+    }
+
+    // memoized shortest/longest results, least recently used first out once over budget
+    public synchronized PathResultCache getResultCache() {
+        return results;
+    }
+
+    public synchronized void setResultCache(PathResultCache results) {
+        this.results = results;
+    }
+
+    public synchronized DAGShortestPath.CriticalPathResult criticalPath() {
+        if (critical == null || criticalVersion != graphVersion()) {
+            List<Integer> topoOrder = getTopologicalOrder();
+            DAGShortestPath engine = getPathEngine();
+            try (Tracer.Span span = tracer.span("relaxation")) {
+                critical = engine.findCriticalPath(topoOrder);
+                span.metrics(engine.getMetrics());
+            }
+            criticalVersion = engine.getGraphVersion();
+        }
+        return critical;
+    }
+
+    // earliest/latest start and slack of every vertex; the graph must be acyclic
+    public synchronized CriticalPathAnalysis.Schedule schedule() {
+        if (schedule == null || scheduleVersion != graphVersion()) {
+            DAGShortestPath engine = getPathEngine();
+            try (Tracer.Span span = tracer.span("schedule")) {
+                CriticalPathAnalysis analysis = new CriticalPathAnalysis(engine);
+                schedule = analysis.analyze();
+                span.metrics(analysis.getMetrics());
+            }
+            scheduleVersion = engine.getGraphVersion();
+        }
+        return schedule;
+    }
+
+    // drops memoized path results, the upstream stages stay
+    public synchronized void clearPathResults() {
+        results.clear();
+        critical = null;
+        schedule = null;
+    }
+
+    public int getDefaultSource() {
+        return defaultSource;
+    }
+
+    public String getWeightModel() {
+        return weightModel;
+    }
+
+    // null unless the graph has node weights
+    public int[] getNodeWeights() {
+        return nodeWeights;
+    }
+
+    // metrics of the SCC run; empty until getSCCs() has run
+    public synchronized Metrics getSccMetrics() {
+        return tarjan == null ? new Metrics() : tarjan.getMetrics();
+    }
+
+    public synchronized Metrics getTopoMetrics() {
+        return topo == null ? new Metrics() : topo.getMetrics();
+    }
+
+    // metrics of the last path sweep that was actually computed
+    public synchronized Metrics getPathMetrics() {
+        return paths == null ? new Metrics() : paths.getMetrics();
+    }
+}
@@ -0,0 +1,344 @@
+package org.example.graph.pipeline;
+
+import org.example.graph.dagsp.DAGShortestPath;
+import org.example.graph.dagsp.PathResultCache;
+import org.example.graph.dagsp.PathView;
+import org.example.util.GraphAdjacency;
+import org.example.util.GraphLoader;
+import org.example.util.Metrics;
+import org.example.util.MetricsRegistry;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.*;
+
+// Thread-safe path queries over a frozen graph and topological order. Nothing here changes
+// after construction: every query runs its own DAGShortestPath with its own Metrics, so
+// concurrent queries share only read-only arrays. The graph's arrays must not be modified
+// while the service is in use. Requests run on virtual threads, either submitted directly or
+// read as lines from stdin or a local socket:
+//
+//   shortest <source> [target]   longest <source> [target]   path shortest|longest <source> <target>
+//
+// Each request gets one response line, "ok ..." or "error <message>", in request order.
+public class PathQueryService implements AutoCloseable {
+    // requests of one stream that may be in flight before reading blocks
+    private static final int MAX_PIPELINED = 1_024;
+    private static final Future<String> END = CompletableFuture.completedFuture(null);
+
+    public enum Kind {
+        SHORTEST,
+        LONGEST
+    }
+
+    private final GraphAdjacency graph;
+    private final List<Integer> topoOrder;
+    private final String weightModel;
+    private final int[] nodeWeights;
+    private final PathResultCache cache;
+    // only used for reconstructPath, which keeps no state
+    private final DAGShortestPath paths;
+    private final MetricsRegistry registry;
+    private final ExecutorService executor;
+
+    // a query result with the counters and time of that query alone
+    public static class Answer<T> {
+        private final T result;
+        private final Metrics metrics;
+
+        public Answer(T result, Metrics metrics) {
+            this.result = result;
+            this.metrics = metrics;
+        }
+
+        public T getResult() {
+            return result;
+        }
+
+        public Metrics getMetrics() {
+            return metrics;
+        }
+    }
+
+    public PathQueryService(GraphPipeline pipeline) {
+        this(pipeline, 0);
+    }
+
+    // cacheBytes > 0 puts a PathResultCache of that size in front of every query
+    public PathQueryService(GraphPipeline pipeline, long cacheBytes) {
+        this(pipeline.getAdjacency(), pipeline.getTopologicalOrder(), pipeline.getWeightModel(), pipeline.getNodeWeights(),
+                cacheBytes);
+    }
+
+    public PathQueryService(GraphAdjacency graph, List<Integer> topoOrder, String weightModel, int[] nodeWeights) {
+        this(graph, topoOrder, weightModel, nodeWeights, 0);
+    }
+
+    public PathQueryService(GraphAdjacency graph, List<Integer> topoOrder, String weightModel, int[] nodeWeights,
+                            long cacheBytes) {
+        this.graph = graph;
+        this.topoOrder = List.copyOf(topoOrder);
+        this.weightModel = weightModel;
+        this.nodeWeights = nodeWeights == null ? null : nodeWeights.clone();
+        this.cache = cacheBytes > 0 ? new PathResultCache(cacheBytes) : null;
+        this.paths = engine();
+        this.registry = new MetricsRegistry();
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    public Answer<DAGShortestPath.ShortestPathResult> shortestPaths(int source) {
+        checkVertex(source);
+        DAGShortestPath engine = engine();
+        DAGShortestPath.ShortestPathResult result = engine.shortestPaths(source, topoOrder);
+        registry.record("query_shortest", engine.getMetrics());
+        return new Answer<>(result, engine.getMetrics());
+    }
+
+    public Answer<DAGShortestPath.LongestPathResult> longestPath(int source) {
+        checkVertex(source);
+        DAGShortestPath engine = engine();
+        DAGShortestPath.LongestPathResult result = engine.longestPath(source, topoOrder);
+        registry.record("query_longest", engine.getMetrics());
+        return new Answer<>(result, engine.getMetrics());
+    }
+
+    // empty path when target is not reachable from source
+    public Answer<List<Integer>> reconstructPath(Kind kind, int source, int target) {
+        checkVertex(target);
+        if (kind == Kind.SHORTEST) {
+            Answer<DAGShortestPath.ShortestPathResult> answer = shortestPaths(source);
+            return new Answer<>(paths.reconstructPath(source, target, answer.getResult().getParent()), answer.getMetrics());
+        }
+        Answer<DAGShortestPath.LongestPathResult> answer = longestPath(source);
+        return new Answer<>(paths.reconstructPath(source, target, answer.getResult().getParent()), answer.getMetrics());
+    }
+
+    public CompletableFuture<Answer<DAGShortestPath.ShortestPathResult>> submitShortestPaths(int source) {
+        return CompletableFuture.supplyAsync(() -> shortestPaths(source), executor);
+    }
+
+    public CompletableFuture<Answer<DAGShortestPath.LongestPathResult>> submitLongestPath(int source) {
+        return CompletableFuture.supplyAsync(() -> longestPath(source), executor);
+    }
+
+    public CompletableFuture<Answer<List<Integer>>> submitReconstructPath(Kind kind, int source, int target) {
+        return CompletableFuture.supplyAsync(() -> reconstructPath(kind, source, target), executor);
+    }
+
+    // answers one protocol line, never throws
+    public String handle(String line) {
+        String[] parts = line.trim().split("\\s+");
+        try {
+            switch (parts[0]) {
+                case "shortest", "longest" -> {
+                    Kind kind = parts[0].equals("shortest") ? Kind.SHORTEST : Kind.LONGEST;
+                    int source = Integer.parseInt(parts[1]);
+                    if (parts.length == 2) {
+                        return summary(kind, source);
+                    }
+                    if (parts.length == 3) {
+                        return pathLine(kind, source, Integer.parseInt(parts[2]), true);
+                    }
+                }
+                case "path" -> {
+                    if (parts.length == 4 && (parts[1].equals("shortest") || parts[1].equals("longest"))) {
+                        Kind kind = parts[1].equals("shortest") ? Kind.SHORTEST : Kind.LONGEST;
+                        return pathLine(kind, Integer.parseInt(parts[2]), Integer.parseInt(parts[3]), false);
+                    }
+                }
+                default -> {
+                }
+            }
+            return "error unknown request: " + line.trim();
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            return "error malformed request: " + line.trim();
+        } catch (RuntimeException e) {
+            return "error " + e.getMessage();
+        }
+    }
+
+    private String summary(Kind kind, int source) {
+        int[] dist;
+        Metrics metrics;
+        int unreached;
+        if (kind == Kind.SHORTEST) {
+            Answer<DAGShortestPath.ShortestPathResult> answer = shortestPaths(source);
+            dist = answer.getResult().getDist();
+            metrics = answer.getMetrics();
+            unreached = Integer.MAX_VALUE;
+        } else {
+            Answer<DAGShortestPath.LongestPathResult> answer = longestPath(source);
+            dist = answer.getResult().getDist();
+            metrics = answer.getMetrics();
+            unreached = Integer.MIN_VALUE;
+        }
+        int reached = 0;
+        for (int d : dist) {
+            if (d != unreached) reached++;
+        }
+        return "ok " + kind.name().toLowerCase() + " source=" + source + " reached=" + reached + counters(metrics);
+    }
+
+    private String pathLine(Kind kind, int source, int target, boolean withDist) {
+        checkVertex(target);
+        int dist;
+        PathView path;
+        Metrics metrics;
+        if (kind == Kind.SHORTEST) {
+            Answer<DAGShortestPath.ShortestPathResult> answer = shortestPaths(source);
+            dist = answer.getResult().getDist()[target];
+            path = answer.getResult().pathTo(target);
+            metrics = answer.getMetrics();
+        } else {
+            Answer<DAGShortestPath.LongestPathResult> answer = longestPath(source);
+            dist = answer.getResult().getDist()[target];
+            path = answer.getResult().pathTo(target);
+            metrics = answer.getMetrics();
+        }
+        StringBuilder line = new StringBuilder("ok ").append(kind.name().toLowerCase())
+                .append(" source=").append(source).append(" target=").append(target);
+        if (withDist) {
+            line.append(" dist=").append(path.isEmpty() ? "unreachable" : Integer.toString(dist));
+        }
+        line.append(" path=");
+        int start = line.length();
+        path.forEach(v -> {
+            if (line.length() > start) line.append(',');
+            line.append(v);
+        });
+        return line.append(counters(metrics)).toString();
+    }
+
+    private static String counters(Metrics metrics) {
+        return " relaxations=" + metrics.getRelaxations() + " micros=" + metrics.getElapsedTimeNanos() / 1_000;
+    }
+
+    // Reads requests until EOF or "quit". Every line is answered on its own virtual thread, a
+    // writer thread prints the answers in request order; at most MAX_PIPELINED are in flight.
+    public void serve(InputStream in, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        BlockingQueue<Future<String>> pending = new ArrayBlockingQueue<>(MAX_PIPELINED);
+        IOException[] writeError = new IOException[1];
+        Thread printer = Thread.ofVirtual().start(() -> {
+            try {
+                Future<String> next;
+                while ((next = pending.take()) != END) {
+                    String response = next.get();
+                    // after a write error keep draining, so the reader never blocks on a full queue
+                    if (writeError[0] != null) continue;
+                    try {
+                        writer.write(response);
+                        writer.write('\n');
+                        if (pending.isEmpty()) writer.flush();
+                    } catch (IOException e) {
+                        writeError[0] = e;
+                    }
+                }
+                if (writeError[0] == null) writer.flush();
+            } catch (IOException e) {
+                writeError[0] = e;
+            } catch (InterruptedException | ExecutionException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String request = line.trim();
+                if (request.isEmpty()) continue;
+                if (request.equals("quit")) break;
+                pending.put(executor.submit(() -> handle(request)));
+            }
+            pending.put(END);
+            printer.join();
+        } catch (InterruptedException e) {
+            printer.interrupt();
+            Thread.currentThread().interrupt();
+        }
+        if (writeError[0] != null) throw writeError[0];
+    }
+
+    // accepts connections on 127.0.0.1, each served on its own virtual thread; close the
+    // returned socket to stop accepting
+    public ServerSocket listen(int port) throws IOException {
+        ServerSocket server = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        Thread.ofVirtual().start(() -> {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    Thread.ofVirtual().start(() -> {
+                        try (socket) {
+                            serve(socket.getInputStream(), socket.getOutputStream());
+                        } catch (IOException e) {
+                            // client went away
+                        }
+                    });
+                } catch (IOException e) {
+                    // accept fails once the server socket is closed
+                }
+            }
+        });
+        return server;
+    }
+
+    // aggregated counters and latency of every query so far
+    public MetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    // null when the service was built without a cache
+    public PathResultCache getCache() {
+        return cache;
+    }
+
+    public int getN() {
+        return graph.getN();
+    }
+
+    private DAGShortestPath engine() {
+        DAGShortestPath engine = new DAGShortestPath(graph, weightModel, nodeWeights);
+        engine.setResultCache(cache);
+        return engine;
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= graph.getN()) {
+            throw new IllegalArgumentException("vertex " + v + " out of range for n=" + graph.getN());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    // PathQueryService <graph file> [port [cache MB]]: answers requests on stdin, or on a local port
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 3) {
+            System.err.println("Usage: PathQueryService <graph file> [port [cache MB]]");
+            System.exit(1);
+        }
+        GraphPipeline pipeline = new GraphPipeline(GraphLoader.loadGraph(Paths.get(args[0])));
+        long cacheBytes = args.length == 3 ? Long.parseLong(args[2]) << 20 : 0;
+        try (PathQueryService service = new PathQueryService(pipeline, cacheBytes)) {
+            if (args.length == 1) {
+                service.serve(System.in, System.out);
+                return;
+            }
+            ServerSocket server = service.listen(Integer.parseInt(args[1]));
+            System.err.println("Listening on 127.0.0.1:" + server.getLocalPort());
+            try {
+                Thread.currentThread().join();
+            } catch (InterruptedException e) {
+                server.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.graph.scc;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+// read-only Map<vertex, component> over a component id array, lookups do not box into a HashMap
+class ComponentMapView extends AbstractMap<Integer, Integer> {
+    private final int[] component;
+
+    ComponentMapView(int[] component) {
+        this.component = component;
+    }
+
+    @Override
+    public Integer get(Object key) {
+        if (!(key instanceof Integer)) return null;
+        int v = (Integer) key;
+        if (v < 0 || v >= component.length) return null;
+        return component[v];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (!(key instanceof Integer)) return false;
+        int v = (Integer) key;
+        return v >= 0 && v < component.length;
+    }
+
+    @Override
+    public int size() {
+        return component.length;
+    }
+
+    @Override
+    public Set<Entry<Integer, Integer>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Integer, Integer>> iterator() {
+                return new Iterator<>() {
+                    private int next = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < component.length;
+                    }
+
+                    @Override
+                    public Entry<Integer, Integer> next() {
+                        if (next >= component.length) throw new NoSuchElementException();
+                        int v = next++;
+                        return new SimpleImmutableEntry<>(v, component[v]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return component.length;
+            }
+        };
+    }
+}
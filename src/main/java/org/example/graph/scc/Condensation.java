@@ -0,0 +1,186 @@
+package org.example.graph.scc;
+
+import org.example.util.CSRGraph;
+import org.example.util.GraphAdjacency;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class Condensation {
+
+    // The condensation with what a path engine over it needs besides the lightest weight: the
+    // heaviest weight of every merged pair, the endpoints of the lightest and the heaviest
+    // original edge, and the members of every component.
+    public static class Detailed {
+        private final CSRGraph dag;
+        private final int[] maxWeights;
+        private final int[] minTails;
+        private final int[] minHeads;
+        private final int[] maxTails;
+        private final int[] maxHeads;
+        private final int[] memberOffsets;
+        private final int[] members;
+
+        public Detailed(CSRGraph dag, int[] maxWeights, int[] minTails, int[] minHeads, int[] maxTails, int[] maxHeads,
+                        int[] memberOffsets, int[] members) {
+            this.dag = dag;
+            this.maxWeights = maxWeights;
+            this.minTails = minTails;
+            this.minHeads = minHeads;
+            this.maxTails = maxTails;
+            this.maxHeads = maxHeads;
+            this.memberOffsets = memberOffsets;
+            this.members = members;
+        }
+
+        // the same DAG build() returns, weights are the lightest of every merged pair
+        public CSRGraph getDag() {
+            return dag;
+        }
+
+        public int[] getMaxWeights() {
+            return maxWeights;
+        }
+
+        public int[] getMinTails() {
+            return minTails;
+        }
+
+        public int[] getMinHeads() {
+            return minHeads;
+        }
+
+        public int[] getMaxTails() {
+            return maxTails;
+        }
+
+        public int[] getMaxHeads() {
+            return maxHeads;
+        }
+
+        // vertices of component c are members[memberOffsets[c]] .. members[memberOffsets[c + 1] - 1]
+        public int[] getMemberOffsets() {
+            return memberOffsets;
+        }
+
+        public int[] getMembers() {
+            return members;
+        }
+    }
+
+    // Builds the condensation DAG in CSR form from a vertex -> component array.
+    // Parallel edges are merged with a stamp array (stamp[d] == c means c -> d is already
+    // present), keeping the smallest weight; no per-edge allocation or boxing.
+    public static CSRGraph build(GraphAdjacency graph, int[] component, int componentCount) {
+        return build(graph, component, componentCount, false).getDag();
+    }
+
+    // same merge, also keeping the heaviest weight and the endpoints of both kept edges
+    public static Detailed buildDetailed(GraphAdjacency graph, int[] component, int componentCount) {
+        return build(graph, component, componentCount, true);
+    }
+
+    private static Detailed build(GraphAdjacency graph, int[] component, int componentCount, boolean detailed) {
+        int n = graph.getN();
+
+        // group vertices by component with a counting sort
+        int[] memberOffsets = new int[componentCount + 1];
+        for (int v = 0; v < n; v++) {
+            memberOffsets[component[v] + 1]++;
+        }
+        for (int c = 0; c < componentCount; c++) {
+            memberOffsets[c + 1] += memberOffsets[c];
+        }
+        int[] members = new int[n];
+        int[] next = new int[componentCount];
+        System.arraycopy(memberOffsets, 0, next, 0, componentCount);
+        for (int v = 0; v < n; v++) {
+            members[next[component[v]]++] = v;
+        }
+
+        int[] stamp = new int[componentCount];
+        Arrays.fill(stamp, -1);
+        int[] dagOffsets = new int[componentCount + 1];
+        for (int c = 0; c < componentCount; c++) {
+            int degree = 0;
+            for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++) {
+                int u = members[i];
+                for (long e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    int d = component[graph.target(e)];
+                    if (d != c && stamp[d] != c) {
+                        stamp[d] = c;
+                        degree++;
+                    }
+                }
+            }
+            dagOffsets[c + 1] = dagOffsets[c] + degree;
+        }
+
+        Arrays.fill(stamp, -1);
+        int m = dagOffsets[componentCount];
+        int[] slot = new int[componentCount];
+        int[] dagTargets = new int[m];
+        int[] dagWeights = new int[m];
+        int[] maxWeights = detailed ? new int[m] : null;
+        int[] minTails = detailed ? new int[m] : null;
+        int[] minHeads = detailed ? new int[m] : null;
+        int[] maxTails = detailed ? new int[m] : null;
+        int[] maxHeads = detailed ? new int[m] : null;
+        for (int c = 0; c < componentCount; c++) {
+            int pos = dagOffsets[c];
+            for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++) {
+                int u = members[i];
+                for (long e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    int v = graph.target(e);
+                    int d = component[v];
+                    if (d == c) continue;
+                    int w = graph.weight(e);
+                    if (stamp[d] != c) {
+                        stamp[d] = c;
+                        slot[d] = pos;
+                        dagTargets[pos] = d;
+                        dagWeights[pos] = w;
+                        if (detailed) {
+                            maxWeights[pos] = w;
+                            minTails[pos] = maxTails[pos] = u;
+                            minHeads[pos] = maxHeads[pos] = v;
+                        }
+                        pos++;
+                        continue;
+                    }
+                    int s = slot[d];
+                    if (w < dagWeights[s]) {
+                        dagWeights[s] = w;
+                        if (detailed) {
+                            minTails[s] = u;
+                            minHeads[s] = v;
+                        }
+                    }
+                    if (detailed && w > maxWeights[s]) {
+                        maxWeights[s] = w;
+                        maxTails[s] = u;
+                        maxHeads[s] = v;
+                    }
+                }
+            }
+        }
+
+        CSRGraph dag = new CSRGraph(componentCount, dagOffsets, dagTargets, dagWeights);
+        return new Detailed(dag, maxWeights, minTails, minHeads, maxTails, maxHeads, memberOffsets, members);
+    }
+
+    public static List<List<Integer>> toAdjacencyLists(CSRGraph dag) {
+        int[] offsets = dag.getOffsets();
+        int[] targets = dag.getTargets();
+        List<List<Integer>> result = new ArrayList<>(dag.getN());
+        for (int c = 0; c < dag.getN(); c++) {
+            List<Integer> adj = new ArrayList<>(offsets[c + 1] - offsets[c]);
+            for (int e = offsets[c]; e < offsets[c + 1]; e++) {
+                adj.add(targets[e]);
+            }
+            result.add(adj);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,394 @@
+package org.example.graph.scc;
+
+import org.example.util.CSRGraph;
+import org.example.util.GraphLoader;
+import org.example.util.IntArrayList;
+import org.example.util.Metrics;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Forward-backward SCC decomposition with trimming on a ForkJoinPool.
+// Every subproblem is a set of vertices sharing a color; the reach sets of a pivot
+// split it into the pivot's SCC and three independent subproblems.
+public class ParallelSCC {
+    public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 100_000;
+    private static final int FORK_THRESHOLD = 2_048;
+    private static final int FRONTIER_CHUNK = 1_024;
+    private static final int DONE = -1;
+    private static final int NO_COLOR = Integer.MIN_VALUE;
+    private static final int TRIMMED = -1;
+
+    private final CSRGraph graph;
+    private final int n;
+    private final int parallelism;
+    private final int sequentialThreshold;
+    private Metrics metrics;
+    private CSRGraph reverse;
+    private AtomicIntegerArray color;
+    private int[] rawComponent;
+    private int[] inDegree;
+    private int[] outDegree;
+    private AtomicInteger nextColor;
+    private AtomicInteger nextComponent;
+    private List<List<Integer>> sccs;
+    private int[] vertexToSCC;
+    private boolean parallel;
+
+    public ParallelSCC(CSRGraph graph) {
+        this(graph, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelSCC(CSRGraph graph, int parallelism) {
+        this(graph, parallelism, DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+    public ParallelSCC(CSRGraph graph, int parallelism, int sequentialThreshold) {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        this.graph = graph;
+        this.n = graph.getN();
+        this.parallelism = parallelism;
+        this.sequentialThreshold = sequentialThreshold;
+        this.metrics = new Metrics();
+    }
+
+    public List<List<Integer>> findSCCs() {
+        if (sccs != null) return new ArrayList<>(sccs);
+
+        metrics.reset();
+        metrics.startTiming();
+        // below the crossover the fork/join and transpose overhead outweighs the gain
+        if (n < sequentialThreshold || parallelism == 1) {
+            runTarjan();
+        } else {
+            runForwardBackward();
+        }
+        metrics.stopTiming();
+        return new ArrayList<>(sccs);
+    }
+
+    public CSRGraph buildCondensationCSR() {
+        return Condensation.build(graph, vertexToSCC, sccs.size());
+    }
+
+    public List<List<Integer>> buildCondensationGraph() {
+        return Condensation.toAdjacencyLists(buildCondensationCSR());
+    }
+
+    public Map<Integer, Integer> getVertexToSCC() {
+        if (vertexToSCC == null) return Collections.emptyMap();
+        return new ComponentMapView(vertexToSCC);
+    }
+
+    public int[] getComponentIds() {
+        return vertexToSCC;
+    }
+
+    public int getComponentCount() {
+        return sccs == null ? 0 : sccs.size();
+    }
+
+    public boolean wasParallel() {
+        return parallel;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    // Metrics.DISABLED turns off counting and timing
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public static ParallelSCC fromGraphLoader(GraphLoader.Graph g, int parallelism) {
+        return new ParallelSCC(CSRGraph.fromGraphLoader(g), parallelism);
+    }
+
+    private void runTarjan() {
+        parallel = false;
+        TarjanSCC tarjan = new TarjanSCC(graph);
+        tarjan.setMetrics(metrics.isEnabled() ? new Metrics() : Metrics.DISABLED);
+        sccs = tarjan.findSCCsIterative();
+        vertexToSCC = tarjan.getComponentIds();
+        metrics.addDfsVisits(tarjan.getMetrics().getDfsVisits());
+        metrics.addEdgeTraversals(tarjan.getMetrics().getEdgeTraversals());
+    }
+
+    private void runForwardBackward() {
+        parallel = true;
+        reverse = graph.transpose();
+        color = new AtomicIntegerArray(n);
+        rawComponent = new int[n];
+        inDegree = new int[n];
+        outDegree = new int[n];
+        nextColor = new AtomicInteger(1);
+        nextComponent = new AtomicInteger(0);
+
+        int[] all = new int[n];
+        for (int v = 0; v < n; v++) all[v] = v;
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new SubproblemTask(new Subproblem(all, 0)));
+        } finally {
+            pool.shutdown();
+        }
+
+        relabel();
+        reverse = null;
+        color = null;
+        rawComponent = null;
+        inDegree = null;
+        outDegree = null;
+    }
+
+    // component ids are assigned in order of their smallest vertex so the result is deterministic
+    private void relabel() {
+        int[] label = new int[nextComponent.get()];
+        Arrays.fill(label, -1);
+        vertexToSCC = new int[n];
+        sccs = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            int raw = rawComponent[v];
+            int id;
+            if (raw == TRIMMED) {
+                id = sccs.size();
+                sccs.add(new ArrayList<>());
+            } else {
+                if (label[raw] == -1) {
+                    label[raw] = sccs.size();
+                    sccs.add(new ArrayList<>());
+                }
+                id = label[raw];
+            }
+            vertexToSCC[v] = id;
+            sccs.get(id).add(v);
+        }
+    }
+
+    private static final class Subproblem {
+        final int[] vertices;
+        final int color;
+
+        Subproblem(int[] vertices, int color) {
+            this.vertices = vertices;
+            this.color = color;
+        }
+    }
+
+    // ForkJoin tasks are never serialized
+    @SuppressWarnings("serial")
+    private final class SubproblemTask extends RecursiveAction {
+        private final Subproblem root;
+
+        SubproblemTask(Subproblem root) {
+            this.root = root;
+        }
+
+        @Override
+        protected void compute() {
+            Deque<Subproblem> pending = new ArrayDeque<>();
+            List<SubproblemTask> forked = new ArrayList<>();
+            pending.push(root);
+            while (!pending.isEmpty()) {
+                for (Subproblem child : split(pending.pop())) {
+                    if (child.vertices.length >= FORK_THRESHOLD) {
+                        SubproblemTask task = new SubproblemTask(child);
+                        task.fork();
+                        forked.add(task);
+                    } else {
+                        pending.push(child);
+                    }
+                }
+            }
+            for (SubproblemTask task : forked) {
+                task.join();
+            }
+        }
+    }
+
+    private List<Subproblem> split(Subproblem p) {
+        int c = p.color;
+        int[] remaining = trim(p.vertices, c);
+        if (remaining.length == 0) return Collections.emptyList();
+
+        int pivot = remaining[0];
+        long best = -1;
+        for (int u : remaining) {
+            long score = (long) inDegree[u] * outDegree[u];
+            if (score > best) {
+                best = score;
+                pivot = u;
+            }
+        }
+
+        int fColor = nextColor.getAndIncrement();
+        int bColor = nextColor.getAndIncrement();
+        int sColor = nextColor.getAndIncrement();
+
+        color.set(pivot, fColor);
+        reach(graph, pivot, c, fColor, NO_COLOR, NO_COLOR);
+        color.set(pivot, sColor);
+        reach(reverse, pivot, c, bColor, fColor, sColor);
+
+        IntArrayList forwardOnly = new IntArrayList();
+        IntArrayList backwardOnly = new IntArrayList();
+        IntArrayList rest = new IntArrayList();
+        int component = nextComponent.getAndIncrement();
+        for (int u : remaining) {
+            int cu = color.get(u);
+            if (cu == sColor) {
+                rawComponent[u] = component;
+                color.set(u, DONE);
+            } else if (cu == fColor) {
+                forwardOnly.add(u);
+            } else if (cu == bColor) {
+                backwardOnly.add(u);
+            } else {
+                rest.add(u);
+            }
+        }
+
+        List<Subproblem> children = new ArrayList<>(3);
+        if (!forwardOnly.isEmpty()) children.add(new Subproblem(forwardOnly.toArray(), fColor));
+        if (!backwardOnly.isEmpty()) children.add(new Subproblem(backwardOnly.toArray(), bColor));
+        if (!rest.isEmpty()) children.add(new Subproblem(rest.toArray(), c));
+        return children;
+    }
+
+    // peels off vertices with no in- or out-edges inside the subproblem, each is its own SCC
+    private int[] trim(int[] vertices, int c) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] rOffsets = reverse.getOffsets();
+        int[] rTargets = reverse.getTargets();
+
+        int[] queue = new int[vertices.length];
+        int head = 0;
+        int tail = 0;
+        for (int u : vertices) {
+            int out = 0;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                if (color.get(targets[e]) == c) out++;
+            }
+            int in = 0;
+            for (int e = rOffsets[u]; e < rOffsets[u + 1]; e++) {
+                if (color.get(rTargets[e]) == c) in++;
+            }
+            outDegree[u] = out;
+            inDegree[u] = in;
+        }
+        for (int u : vertices) {
+            if (inDegree[u] == 0 || outDegree[u] == 0) {
+                color.set(u, DONE);
+                rawComponent[u] = TRIMMED;
+                queue[tail++] = u;
+            }
+        }
+
+        while (head < tail) {
+            int u = queue[head++];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                if (color.get(v) == c && --inDegree[v] == 0) {
+                    color.set(v, DONE);
+                    rawComponent[v] = TRIMMED;
+                    queue[tail++] = v;
+                }
+            }
+            for (int e = rOffsets[u]; e < rOffsets[u + 1]; e++) {
+                int v = rTargets[e];
+                if (color.get(v) == c && --outDegree[v] == 0) {
+                    color.set(v, DONE);
+                    rawComponent[v] = TRIMMED;
+                    queue[tail++] = v;
+                }
+            }
+        }
+
+        if (tail == 0) return vertices;
+        int[] remaining = new int[vertices.length - tail];
+        int k = 0;
+        for (int u : vertices) {
+            if (color.get(u) == c) remaining[k++] = u;
+        }
+        return remaining;
+    }
+
+    // level-synchronous BFS that recolors from1 -> to1 and from2 -> to2;
+    // large frontiers are expanded by several tasks, claims are made with CAS
+    private void reach(CSRGraph g, int start, int from1, int to1, int from2, int to2) {
+        int[] frontier = {start};
+        while (frontier.length > 0) {
+            if (frontier.length >= 2 * FRONTIER_CHUNK) {
+                List<ExpandTask> tasks = new ArrayList<>();
+                for (int lo = 0; lo < frontier.length; lo += FRONTIER_CHUNK) {
+                    tasks.add(new ExpandTask(g, frontier, lo, Math.min(lo + FRONTIER_CHUNK, frontier.length), from1, to1, from2, to2));
+                }
+                ForkJoinTask.invokeAll(tasks);
+                IntArrayList next = new IntArrayList();
+                for (ExpandTask task : tasks) {
+                    IntArrayList part = task.join();
+                    for (int i = 0; i < part.size(); i++) next.add(part.get(i));
+                }
+                frontier = next.toArray();
+            } else {
+                frontier = expand(g, frontier, 0, frontier.length, from1, to1, from2, to2).toArray();
+            }
+        }
+    }
+
+    private IntArrayList expand(CSRGraph g, int[] frontier, int lo, int hi, int from1, int to1, int from2, int to2) {
+        int[] offsets = g.getOffsets();
+        int[] targets = g.getTargets();
+        IntArrayList next = new IntArrayList();
+        for (int i = lo; i < hi; i++) {
+            int u = frontier[i];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                int cv = color.get(v);
+                if (cv == from1) {
+                    if (color.compareAndSet(v, from1, to1)) next.add(v);
+                } else if (cv == from2) {
+                    if (color.compareAndSet(v, from2, to2)) next.add(v);
+                }
+            }
+        }
+        return next;
+    }
+
+    // ForkJoin tasks are never serialized
+    @SuppressWarnings("serial")
+    private final class ExpandTask extends RecursiveTask<IntArrayList> {
+        private final CSRGraph g;
+        private final int[] frontier;
+        private final int lo;
+        private final int hi;
+        private final int from1;
+        private final int to1;
+        private final int from2;
+        private final int to2;
+
+        ExpandTask(CSRGraph g, int[] frontier, int lo, int hi, int from1, int to1, int from2, int to2) {
+            this.g = g;
+            this.frontier = frontier;
+            this.lo = lo;
+            this.hi = hi;
+            this.from1 = from1;
+            this.to1 = to1;
+            this.from2 = from2;
+            this.to2 = to2;
+        }
+
+        @Override
+        protected IntArrayList compute() {
+            return expand(g, frontier, lo, hi, from1, to1, from2, to2);
+        }
+    }
+}
@@ -1,29 +1,41 @@
 package org.example.graph.scc;
 
+import org.example.util.CSRGraph;
+import org.example.util.GraphAdjacency;
 import org.example.util.Metrics;
 import org.example.util.GraphLoader;
 
 import java.util.*;
 
 public class TarjanSCC {
-    private List<List<Integer>> graph;
+    private GraphAdjacency graph;
     private int n;
     private int[] disc;
     private int[] low;
     private boolean[] onStack;
-    private Deque<Integer> stack;
+    private int[] component;
+    private int[] stack;
+    private int stackTop;
     private int time;
+    private long traversals;
     private List<List<Integer>> sccs;
     private Metrics metrics;
 
     public TarjanSCC(List<List<Integer>> graph, int n) {
+        this(CSRGraph.fromAdjacency(graph, n));
+    }
+
+    public TarjanSCC(GraphAdjacency graph) {
         this.graph = graph;
-        this.n = n;
+        this.n = graph.getN();
         this.disc = new int[n];
         Arrays.fill(this.disc, -1);
         this.low = new int[n];
         this.onStack = new boolean[n];
-        this.stack = new ArrayDeque<>();
+        this.component = new int[n];
+        Arrays.fill(this.component, -1);
+        this.stack = new int[n];
+        this.stackTop = 0;
         this.time = 0;
         this.sccs = new ArrayList<>();
         this.metrics = new Metrics();
@@ -32,25 +44,84 @@ public class TarjanSCC {
     public List<List<Integer>> findSCCs() {
         metrics.reset();
         metrics.startTiming();
+        int startTime = time;
+        traversals = 0;
         for (int i = 0; i < n; i++) {
             if (disc[i] == -1) {
                 dfs(i);
             }
         }
+        // every visit takes one discovery time, so the clock is the visit count
+        metrics.addDfsVisits(time - startTime);
+        metrics.addEdgeTraversals(traversals);
         metrics.stopTiming();
         return new ArrayList<>(sccs);
     }
 
-    private void dfs(int u) {
-        metrics.incrementDfsVisits();
+    // same traversal as findSCCs, but with an explicit call stack so deep graphs
+    // do not depend on the thread stack size
+    public List<List<Integer>> findSCCsIterative() {
+        metrics.reset();
+        metrics.startTiming();
+        int[] callStack = new int[n];
+        long[] edgeCursor = new long[n];
+        int startTime = time;
+        long traversals = 0;
+
+        for (int i = 0; i < n; i++) {
+            if (disc[i] != -1) continue;
+
+            int depth = 0;
+            visit(i);
+            edgeCursor[i] = graph.edgeStart(i);
+            callStack[depth++] = i;
+
+            while (depth > 0) {
+                int u = callStack[depth - 1];
+                if (edgeCursor[u] < graph.edgeEnd(u)) {
+                    int v = graph.target(edgeCursor[u]++);
+                    traversals++;
+                    if (disc[v] == -1) {
+                        visit(v);
+                        edgeCursor[v] = graph.edgeStart(v);
+                        callStack[depth++] = v;
+                    } else if (onStack[v]) {
+                        low[u] = Math.min(low[u], disc[v]);
+                    }
+                } else {
+                    depth--;
+                    if (low[u] == disc[u]) {
+                        popComponent(u);
+                    }
+                    if (depth > 0) {
+                        int parent = callStack[depth - 1];
+                        low[parent] = Math.min(low[parent], low[u]);
+                    }
+                }
+            }
+        }
+        metrics.addDfsVisits(time - startTime);
+        metrics.addEdgeTraversals(traversals);
+        metrics.stopTiming();
+        return new ArrayList<>(sccs);
+    }
+
+    private void visit(int u) {
         disc[u] = time;
         low[u] = time;
         time++;
-        stack.push(u);
+        stack[stackTop++] = u;
         onStack[u] = true;
+    }
+
+    private void dfs(int u) {
+        visit(u);
 
-        for (int v : graph.get(u)) {
-            metrics.incrementEdgeTraversals();
+        long start = graph.edgeStart(u);
+        long end = graph.edgeEnd(u);
+        traversals += end - start;
+        for (long e = start; e < end; e++) {
+            int v = graph.target(e);
             if (disc[v] == -1) {
                 dfs(v);
                 low[u] = Math.min(low[u], low[v]);
@@ -60,60 +131,56 @@ public class TarjanSCC {
         }
 
         if (low[u] == disc[u]) {
-            List<Integer> component = new ArrayList<>();
-            int v;
-            do {
-                v = stack.pop();
-                onStack[v] = false;
-                component.add(v);
-            } while (v != u);
-            sccs.add(component);
+            popComponent(u);
         }
     }
 
-    public List<List<Integer>> buildCondensationGraph() {
-        Map<Integer, Integer> vertexToSCC = getVertexToSCC();
-        int numSCCs = sccs.size();
-        List<Set<Integer>> condensation = new ArrayList<>();
-        for (int i = 0; i < numSCCs; i++) condensation.add(new HashSet<>());
-
-        for (int u = 0; u < n; u++) {
-            int sU = vertexToSCC.get(u);
-            for (int v : graph.get(u)) {
-                int sV = vertexToSCC.get(v);
-                if (sU != sV) {
-                    condensation.get(sU).add(sV);
-                }
-            }
-        }
+    private void popComponent(int u) {
+        int id = sccs.size();
+        List<Integer> members = new ArrayList<>();
+        int v;
+        do {
+            v = stack[--stackTop];
+            onStack[v] = false;
+            component[v] = id;
+            members.add(v);
+        } while (v != u);
+        sccs.add(members);
+    }
+
+    public CSRGraph buildCondensationCSR() {
+        return Condensation.build(graph, component, sccs.size());
+    }
 
-        List<List<Integer>> result = new ArrayList<>();
-        for (Set<Integer> s : condensation) result.add(new ArrayList<>(s));
-        return result;
+    public List<List<Integer>> buildCondensationGraph() {
+        return Condensation.toAdjacencyLists(buildCondensationCSR());
     }
 
     public Map<Integer, Integer> getVertexToSCC() {
-        Map<Integer, Integer> map = new HashMap<>();
-        for (int s = 0; s < sccs.size(); s++) {
-            for (int v : sccs.get(s)) {
-                map.put(v, s);
-            }
-        }
-        return map;
+        if (sccs.isEmpty()) return Collections.emptyMap();
+        return new ComponentMapView(component);
+    }
+
+    // component id of every vertex, filled in by the DFS; shared, not copied
+    public int[] getComponentIds() {
+        return component;
+    }
+
+    public int getComponentCount() {
+        return sccs.size();
     }
 
     public Metrics getMetrics() {
         return metrics;
     }
 
+    // Metrics.DISABLED turns off counting and timing
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
     public static TarjanSCC fromGraphLoader(GraphLoader.Graph g) {
-        int n = g.getN();
-        List<List<Integer>> adj = new ArrayList<>();
-        for (int i = 0; i < n; i++) adj.add(new ArrayList<>());
-        for (GraphLoader.Edge e : g.getEdges()) {
-            adj.get(e.getU()).add(e.getV());
-        }
-        return new TarjanSCC(adj, n);
+        return new TarjanSCC(g.toAdjacency());
     }
 }
 
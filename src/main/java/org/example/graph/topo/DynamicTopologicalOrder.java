@@ -0,0 +1,237 @@
+package org.example.graph.topo;
+
+import org.example.util.CSRGraph;
+import org.example.util.IntArrayList;
+import org.example.util.Metrics;
+
+import java.util.*;
+
+// Pearce-Kelly dynamic topological order. An inserted edge u -> v that already agrees
+// with the order costs O(1); otherwise only the vertices between ord[v] and ord[u] that
+// are reachable from v or reach u are searched and shuffled. Deletions never invalidate
+// the order.
+public class DynamicTopologicalOrder {
+    private final int n;
+    private final IntArrayList[] out;
+    private final IntArrayList[] in;
+    private final int[] ord;
+    private final int[] vertexAt;
+    private final boolean[] visited;
+    private final IntArrayList deltaForward;
+    private final IntArrayList deltaBackward;
+    private final IntArrayList stack;
+    private Metrics metrics;
+
+    public DynamicTopologicalOrder(int n) {
+        this.n = n;
+        this.out = new IntArrayList[n];
+        this.in = new IntArrayList[n];
+        this.ord = new int[n];
+        this.vertexAt = new int[n];
+        for (int v = 0; v < n; v++) {
+            out[v] = new IntArrayList(4);
+            in[v] = new IntArrayList(4);
+            ord[v] = v;
+            vertexAt[v] = v;
+        }
+        this.visited = new boolean[n];
+        this.deltaForward = new IntArrayList();
+        this.deltaBackward = new IntArrayList();
+        this.stack = new IntArrayList();
+        this.metrics = new Metrics();
+    }
+
+    public DynamicTopologicalOrder(CSRGraph graph) {
+        this(graph.getN());
+        int[] order = new int[n];
+        if (new TopologicalSort(graph).kahnSort(order) != n) {
+            throw new IllegalArgumentException("Initial graph has a cycle");
+        }
+        for (int i = 0; i < n; i++) {
+            vertexAt[i] = order[i];
+            ord[order[i]] = i;
+        }
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                out[u].add(targets[e]);
+                in[targets[e]].add(u);
+            }
+        }
+    }
+
+    // Inserts u -> v and repairs the order. Returns false, leaving the graph unchanged,
+    // when the edge would close a cycle.
+    public boolean addEdge(int u, int v) {
+        metrics.reset();
+        metrics.startTiming();
+        if (u == v) {
+            metrics.stopTiming();
+            return false;
+        }
+
+        int lowerBound = ord[v];
+        int upperBound = ord[u];
+        if (lowerBound < upperBound) {
+            deltaForward.clear();
+            deltaBackward.clear();
+            boolean cycle = searchForward(v, u, upperBound);
+            if (cycle) {
+                clearVisited(deltaForward);
+                metrics.stopTiming();
+                return false;
+            }
+            searchBackward(u, lowerBound);
+            reorder();
+        }
+
+        out[u].add(v);
+        in[v].add(u);
+        metrics.stopTiming();
+        return true;
+    }
+
+    public boolean removeEdge(int u, int v) {
+        if (!remove(out[u], v)) return false;
+        remove(in[v], u);
+        return true;
+    }
+
+    public boolean hasEdge(int u, int v) {
+        IntArrayList list = out[u];
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == v) return true;
+        }
+        return false;
+    }
+
+    // current order as consumed by TopologicalSort.sortOriginalVertices
+    public List<Integer> getOrder() {
+        List<Integer> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) result.add(vertexAt[i]);
+        return result;
+    }
+
+    public int[] getOrderArray() {
+        return Arrays.copyOf(vertexAt, n);
+    }
+
+    public int position(int v) {
+        return ord[v];
+    }
+
+    public int getN() {
+        return n;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    // Metrics.DISABLED turns off counting and timing
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    private boolean searchForward(int start, int target, int upperBound) {
+        stack.clear();
+        stack.add(start);
+        visited[start] = true;
+        deltaForward.add(start);
+        long traversals = 0;
+        boolean found = false;
+        search:
+        while (!stack.isEmpty()) {
+            int x = stack.removeLast();
+            IntArrayList list = out[x];
+            for (int i = 0; i < list.size(); i++) {
+                int y = list.get(i);
+                traversals++;
+                if (y == target) {
+                    found = true;
+                    break search;
+                }
+                if (!visited[y] && ord[y] < upperBound) {
+                    visited[y] = true;
+                    deltaForward.add(y);
+                    stack.add(y);
+                }
+            }
+        }
+        metrics.addDfsVisits(deltaForward.size());
+        metrics.addEdgeTraversals(traversals);
+        return found;
+    }
+
+    private void searchBackward(int start, int lowerBound) {
+        stack.clear();
+        stack.add(start);
+        visited[start] = true;
+        deltaBackward.add(start);
+        long traversals = 0;
+        while (!stack.isEmpty()) {
+            int x = stack.removeLast();
+            IntArrayList list = in[x];
+            traversals += list.size();
+            for (int i = 0; i < list.size(); i++) {
+                int y = list.get(i);
+                if (!visited[y] && ord[y] > lowerBound) {
+                    visited[y] = true;
+                    deltaBackward.add(y);
+                    stack.add(y);
+                }
+            }
+        }
+        metrics.addDfsVisits(deltaBackward.size());
+        metrics.addEdgeTraversals(traversals);
+    }
+
+    // the affected vertices keep their pool of positions; everything that reaches u is
+    // placed before everything reachable from v, each group keeping its relative order
+    private void reorder() {
+        int[] backward = sortedPositions(deltaBackward);
+        int[] forward = sortedPositions(deltaForward);
+        int[] slots = new int[backward.length + forward.length];
+        System.arraycopy(backward, 0, slots, 0, backward.length);
+        System.arraycopy(forward, 0, slots, backward.length, forward.length);
+        Arrays.sort(slots);
+
+        int[] vertices = new int[slots.length];
+        for (int i = 0; i < backward.length; i++) vertices[i] = vertexAt[backward[i]];
+        for (int i = 0; i < forward.length; i++) vertices[backward.length + i] = vertexAt[forward[i]];
+
+        for (int i = 0; i < slots.length; i++) {
+            int w = vertices[i];
+            ord[w] = slots[i];
+            vertexAt[slots[i]] = w;
+            visited[w] = false;
+        }
+    }
+
+    private int[] sortedPositions(IntArrayList vertices) {
+        int[] positions = new int[vertices.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = ord[vertices.get(i)];
+        }
+        Arrays.sort(positions);
+        return positions;
+    }
+
+    private void clearVisited(IntArrayList vertices) {
+        for (int i = 0; i < vertices.size(); i++) {
+            visited[vertices.get(i)] = false;
+        }
+    }
+
+    private static boolean remove(IntArrayList list, int value) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == value) {
+                int last = list.removeLast();
+                if (i < list.size()) list.set(i, last);
+                return true;
+            }
+        }
+        return false;
+    }
+}
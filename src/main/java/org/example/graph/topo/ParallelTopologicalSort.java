@@ -0,0 +1,252 @@
+package org.example.graph.topo;
+
+import org.example.util.CSRGraph;
+import org.example.util.IntArrayList;
+import org.example.util.Metrics;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Level-synchronous Kahn: every zero in-degree frontier is expanded by several
+// ForkJoin tasks that decrement in-degrees atomically; the vertices that reach
+// zero form the next level. The in-degree count is split over edge ranges the same way.
+public class ParallelTopologicalSort {
+    private static final int FRONTIER_CHUNK = 1_024;
+    private static final int EDGE_CHUNK = 1 << 16;
+
+    private final CSRGraph graph;
+    private final int n;
+    private final int parallelism;
+    private Metrics metrics;
+
+    public static class LevelOrder {
+        private final int[] order;
+        private final int count;
+        private final int[] level;
+        private final int[] levelOffsets;
+
+        public LevelOrder(int[] order, int count, int[] level, int[] levelOffsets) {
+            this.order = order;
+            this.count = count;
+            this.level = level;
+            this.levelOffsets = levelOffsets;
+        }
+
+        // vertices in topological order, level by level; only the first getCount() entries are valid
+        public int[] getOrder() {
+            return order;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        // depth of every vertex, -1 for vertices on or behind a cycle
+        public int[] getLevel() {
+            return level;
+        }
+
+        // vertices of level k are order[levelOffsets[k]] .. order[levelOffsets[k + 1] - 1]
+        public int[] getLevelOffsets() {
+            return levelOffsets;
+        }
+
+        public int getLevelCount() {
+            return levelOffsets.length - 1;
+        }
+
+        public boolean isComplete() {
+            return count == order.length;
+        }
+
+        public List<Integer> toList() {
+            List<Integer> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) result.add(order[i]);
+            return result;
+        }
+    }
+
+    public ParallelTopologicalSort(CSRGraph graph) {
+        this(graph, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelTopologicalSort(CSRGraph graph, int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        this.graph = graph;
+        this.n = graph.getN();
+        this.parallelism = parallelism;
+        this.metrics = new Metrics();
+    }
+
+    public LevelOrder levelSort() {
+        metrics.reset();
+        metrics.startTiming();
+
+        AtomicIntegerArray inDegree = new AtomicIntegerArray(n);
+        int[] order = new int[n];
+        int[] level = new int[n];
+        Arrays.fill(level, -1);
+        IntArrayList levelOffsets = new IntArrayList();
+
+        int count;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new CountTask(inDegree, 0, graph.getEdgeCount()));
+            count = 0;
+            for (int v = 0; v < n; v++) {
+                if (inDegree.get(v) == 0) order[count++] = v;
+            }
+            LevelTask task = new LevelTask(inDegree, order, count, level, levelOffsets);
+            pool.invoke(task);
+            count = task.count;
+        } finally {
+            pool.shutdown();
+        }
+
+        if (metrics.isEnabled()) {
+            // every emitted vertex was pushed and popped once and had all its out-edges scanned
+            int[] offsets = graph.getOffsets();
+            long traversals = 0;
+            for (int i = 0; i < count; i++) traversals += offsets[order[i] + 1] - offsets[order[i]];
+            metrics.addQueuePushes(count);
+            metrics.addQueuePops(count);
+            metrics.addEdgeTraversals(traversals);
+        }
+        metrics.stopTiming();
+        return new LevelOrder(order, count, level, levelOffsets.toArray());
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    // Metrics.DISABLED turns off counting and timing
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    // ForkJoin tasks are never serialized
+    @SuppressWarnings("serial")
+    private final class LevelTask extends RecursiveAction {
+        private final AtomicIntegerArray inDegree;
+        private final int[] order;
+        private final int[] level;
+        private final IntArrayList levelOffsets;
+        private int count;
+
+        LevelTask(AtomicIntegerArray inDegree, int[] order, int count, int[] level, IntArrayList levelOffsets) {
+            this.inDegree = inDegree;
+            this.order = order;
+            this.count = count;
+            this.level = level;
+            this.levelOffsets = levelOffsets;
+        }
+
+        @Override
+        protected void compute() {
+            int start = 0;
+            int depth = 0;
+            while (start < count) {
+                int end = count;
+                levelOffsets.add(start);
+                for (int i = start; i < end; i++) {
+                    level[order[i]] = depth;
+                }
+
+                // every chunk reserves its slice of the next level and copies into it itself
+                AtomicInteger cursor = new AtomicInteger(end);
+                boolean wide = end - start >= 2 * FRONTIER_CHUNK;
+                if (wide) {
+                    List<ExpandTask> tasks = new ArrayList<>();
+                    for (int lo = start; lo < end; lo += FRONTIER_CHUNK) {
+                        tasks.add(new ExpandTask(inDegree, order, lo, Math.min(lo + FRONTIER_CHUNK, end), cursor));
+                    }
+                    ForkJoinTask.invokeAll(tasks);
+                } else {
+                    expand(inDegree, order, start, end, cursor);
+                }
+                count = cursor.get();
+
+                // the order inside a level does not matter for validity, sorting keeps it deterministic
+                if (wide) {
+                    Arrays.parallelSort(order, end, count);
+                } else {
+                    Arrays.sort(order, end, count);
+                }
+                start = end;
+                depth++;
+            }
+            levelOffsets.add(count);
+        }
+    }
+
+    private void expand(AtomicIntegerArray inDegree, int[] order, int lo, int hi, AtomicInteger cursor) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        IntArrayList next = new IntArrayList();
+        for (int i = lo; i < hi; i++) {
+            int u = order[i];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                if (inDegree.decrementAndGet(v) == 0) {
+                    next.add(v);
+                }
+            }
+        }
+        System.arraycopy(next.elements(), 0, order, cursor.getAndAdd(next.size()), next.size());
+    }
+
+    // ForkJoin tasks are never serialized
+    @SuppressWarnings("serial")
+    private final class ExpandTask extends RecursiveAction {
+        private final AtomicIntegerArray inDegree;
+        private final int[] order;
+        private final int lo;
+        private final int hi;
+        private final AtomicInteger cursor;
+
+        ExpandTask(AtomicIntegerArray inDegree, int[] order, int lo, int hi, AtomicInteger cursor) {
+            this.inDegree = inDegree;
+            this.order = order;
+            this.lo = lo;
+            this.hi = hi;
+            this.cursor = cursor;
+        }
+
+        @Override
+        protected void compute() {
+            expand(inDegree, order, lo, hi, cursor);
+        }
+    }
+
+    // in-degree of every vertex, edge ranges are halved until they are small enough to count directly
+    @SuppressWarnings("serial")
+    private final class CountTask extends RecursiveAction {
+        private final AtomicIntegerArray inDegree;
+        private final int lo;
+        private final int hi;
+
+        CountTask(AtomicIntegerArray inDegree, int lo, int hi) {
+            this.inDegree = inDegree;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= EDGE_CHUNK) {
+                int[] targets = graph.getTargets();
+                for (int e = lo; e < hi; e++) {
+                    inDegree.incrementAndGet(targets[e]);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new CountTask(inDegree, lo, mid), new CountTask(inDegree, mid, hi));
+        }
+    }
+}
@@ -1,108 +1,186 @@
 package org.example.graph.topo;
 
+import org.example.util.CSRGraph;
+import org.example.util.GraphAdjacency;
 import org.example.util.Metrics;
 
 import java.util.*;
 
 public class TopologicalSort {
-    private List<List<Integer>> graph;
+    private static final byte UNVISITED = 0;
+    private static final byte ON_STACK = 1;
+    private static final byte DONE = 2;
+
+    private GraphAdjacency graph;
     private int n;
     private Metrics metrics;
+    private int[] scratch;
+    private int[] callStack;
+    private long[] edgeCursor;
+    private byte[] state;
 
 
     public TopologicalSort(List<List<Integer>> graph, int n) {
+        this(CSRGraph.fromAdjacency(graph, n));
+    }
+
+    public TopologicalSort(GraphAdjacency graph) {
         this.graph = graph;
-        this.n = n;
+        this.n = graph.getN();
         this.metrics = new Metrics();
     }
 
 
     public List<Integer> kahnSort() {
+        int[] order = new int[n];
+        int count = kahnSort(order);
+        return toList(order, 0, count);
+    }
+
+    public int[] kahnSortArray() {
+        int[] order = new int[n];
+        int count = kahnSort(order);
+        return count == n ? order : Arrays.copyOf(order, count);
+    }
+
+    // Writes the Kahn order into order (length >= n) and returns how many vertices were
+    // emitted, less than n when there is a cycle. The output array doubles as the FIFO
+    // queue and the in-degree array is reused between calls, so nothing is allocated.
+    public int kahnSort(int[] order) {
         metrics.reset();
         metrics.startTiming();
 
-        int[] inDegree = new int[n];
-        for (int u = 0; u < n; u++) {
-            for (int v : graph.get(u)) {
-                inDegree[v]++;
-            }
+        long m = graph.getM();
+        int[] inDegree = scratch();
+        Arrays.fill(inDegree, 0);
+        for (long e = 0; e < m; e++) {
+            inDegree[graph.target(e)]++;
         }
 
-        Queue<Integer> queue = new LinkedList<>();
+        int head = 0;
+        int tail = 0;
         for (int i = 0; i < n; i++) {
             if (inDegree[i] == 0) {
-                queue.offer(i);
-                metrics.incrementQueuePushes();
+                order[tail++] = i;
             }
         }
 
-        List<Integer> result = new ArrayList<>();
-        while (!queue.isEmpty()) {
-            int u = queue.poll();
-            metrics.incrementQueuePops();
-            result.add(u);
-
-            for (int v : graph.get(u)) {
-                metrics.incrementEdgeTraversals();
+        long traversals = 0;
+        while (head < tail) {
+            int u = order[head++];
+            long start = graph.edgeStart(u);
+            long end = graph.edgeEnd(u);
+            traversals += end - start;
+            for (long e = start; e < end; e++) {
+                int v = graph.target(e);
                 inDegree[v]--;
                 if (inDegree[v] == 0) {
-                    queue.offer(v);
-                    metrics.incrementQueuePushes();
+                    order[tail++] = v;
                 }
             }
         }
 
+        // the queue is the output array, so head and tail are the pop and push counts
+        metrics.addQueuePushes(tail);
+        metrics.addQueuePops(head);
+        metrics.addEdgeTraversals(traversals);
         metrics.stopTiming();
-        return result;
+        return tail;
     }
 
     public List<Integer> dfsSort() {
+        int[] order = new int[n];
+        if (dfsSort(order) < 0) {
+            // Cycle detected
+            return new ArrayList<>();
+        }
+        return toList(order, 0, n);
+    }
+
+    public int[] dfsSortArray() {
+        int[] order = new int[n];
+        return dfsSort(order) < 0 ? new int[0] : order;
+    }
+
+    // Reverse postorder of an iterative DFS written into order (length >= n).
+    // Returns n, or -1 as soon as a back edge shows the graph has a cycle.
+    public int dfsSort(int[] order) {
         metrics.reset();
         metrics.startTiming();
 
-        boolean[] visited = new boolean[n];
-        boolean[] recStack = new boolean[n];
-        Stack<Integer> stack = new Stack<>();
-
+        long[] edgeCursor = edgeCursor();
+        int[] callStack = callStack();
+        byte[] state = state();
+        Arrays.fill(state, UNVISITED);
+        int pos = n;
+        long visits = 0;
+        long traversals = 0;
 
         for (int i = 0; i < n; i++) {
-            if (!visited[i]) {
-                if (!dfs(i, visited, recStack, stack)) {
-                    // Cycle detected
-                    metrics.stopTiming();
-                    return new ArrayList<>();
+            if (state[i] != UNVISITED) continue;
+
+            int depth = 0;
+            state[i] = ON_STACK;
+            visits++;
+            edgeCursor[i] = graph.edgeStart(i);
+            callStack[depth++] = i;
+
+            while (depth > 0) {
+                int u = callStack[depth - 1];
+                if (edgeCursor[u] < graph.edgeEnd(u)) {
+                    int v = graph.target(edgeCursor[u]++);
+                    traversals++;
+                    if (state[v] == UNVISITED) {
+                        state[v] = ON_STACK;
+                        visits++;
+                        edgeCursor[v] = graph.edgeStart(v);
+                        callStack[depth++] = v;
+                    } else if (state[v] == ON_STACK) {
+                        metrics.addDfsVisits(visits);
+                        metrics.addEdgeTraversals(traversals);
+                        metrics.stopTiming();
+                        return -1;
+                    }
+                } else {
+                    depth--;
+                    state[u] = DONE;
+                    order[--pos] = u;
                 }
             }
         }
 
-        List<Integer> result = new ArrayList<>();
-        while (!stack.isEmpty()) {
-            result.add(stack.pop());
-        }
-
+        metrics.addDfsVisits(visits);
+        metrics.addEdgeTraversals(traversals);
         metrics.stopTiming();
-        return result;
+        return n;
     }
 
-    private boolean dfs(int u, boolean[] visited, boolean[] recStack, Stack<Integer> stack) {
-        visited[u] = true;
-        recStack[u] = true;
-        metrics.incrementDfsVisits();
+    private int[] scratch() {
+        if (scratch == null) scratch = new int[n];
+        return scratch;
+    }
 
-        for (int v : graph.get(u)) {
-            metrics.incrementEdgeTraversals();
-            if (!visited[v]) {
-                if (!dfs(v, visited, recStack, stack)) {
-                    return false;
-                }
-            } else if (recStack[v]) {
-                return false;
-            }
-        }
+    private int[] callStack() {
+        if (callStack == null) callStack = new int[n];
+        return callStack;
+    }
 
-        recStack[u] = false;
-        stack.push(u);
-        return true;
+    private long[] edgeCursor() {
+        if (edgeCursor == null) edgeCursor = new long[n];
+        return edgeCursor;
+    }
+
+    private byte[] state() {
+        if (state == null) state = new byte[n];
+        return state;
+    }
+
+    private static List<Integer> toList(int[] order, int from, int to) {
+        List<Integer> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            result.add(order[i]);
+        }
+        return result;
     }
 
     public List<Integer> sortOriginalVertices(List<List<Integer>> sccs, List<Integer> sccOrder) {
@@ -116,5 +194,10 @@ public class TopologicalSort {
     public Metrics getMetrics() {
         return metrics;
     }
+
+    // Metrics.DISABLED turns off counting and timing
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
 }
 
@@ -0,0 +1,190 @@
+package org.example.util;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Compact little-endian CSR file that can be memory-mapped and used without parsing:
+//
+//   0   4 bytes  magic "DAGB"
+//   4   int      format version
+//   8   int      n
+//   12  int      flags, bit 0 = directed
+//   16  long     m
+//   24  int      source
+//   28  int      length of the weight model in bytes
+//   32  32 bytes weight model, UTF-8, zero padded
+//   64  long[n + 1] offsets, then int[m] targets, then int[m] weights
+public class BinaryGraphFormat {
+    public static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    private static final byte[] MAGIC = {'D', 'A', 'G', 'B'};
+    private static final int MAX_WEIGHT_MODEL_BYTES = 32;
+    private static final int FLAG_DIRECTED = 1;
+    private static final int WRITE_BUFFER = 1 << 20;
+
+    public static boolean isBinary(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(MAGIC.length);
+            while (head.hasRemaining()) {
+                if (channel.read(head) < 0) break;
+            }
+            return hasMagic(head.array(), head.position());
+        }
+    }
+
+    static boolean hasMagic(byte[] bytes, int length) {
+        if (length < MAGIC.length) return false;
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (bytes[i] != MAGIC[i]) return false;
+        }
+        return true;
+    }
+
+    public static void write(GraphLoader.Graph graph, Path path) throws IOException {
+        if (graph.getNodeWeights() != null) {
+            throw new IllegalArgumentException("node weights are not stored in the binary format");
+        }
+        write(graph.toAdjacency(), graph.isDirected(), graph.getSource(), graph.getWeightModel(), path);
+    }
+
+    public static void write(GraphAdjacency graph, boolean directed, int source, String weightModel, Path path) throws IOException {
+        byte[] model = weightModel.getBytes(StandardCharsets.UTF_8);
+        if (model.length > MAX_WEIGHT_MODEL_BYTES) {
+            throw new IllegalArgumentException("weight model is longer than " + MAX_WEIGHT_MODEL_BYTES + " bytes: " + weightModel);
+        }
+        int n = graph.getN();
+        long m = graph.getM();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.put(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt(n);
+            buffer.putInt(directed ? FLAG_DIRECTED : 0);
+            buffer.putLong(m);
+            buffer.putInt(source);
+            buffer.putInt(model.length);
+            buffer.put(model);
+            buffer.position(HEADER_SIZE);
+
+            for (int u = 0; u < n; u++) {
+                ensure(channel, buffer, Long.BYTES);
+                buffer.putLong(graph.edgeStart(u));
+            }
+            ensure(channel, buffer, Long.BYTES);
+            buffer.putLong(m);
+            for (long e = 0; e < m; e++) {
+                ensure(channel, buffer, Integer.BYTES);
+                buffer.putInt(graph.target(e));
+            }
+            for (long e = 0; e < m; e++) {
+                ensure(channel, buffer, Integer.BYTES);
+                buffer.putInt(graph.weight(e));
+            }
+            drain(channel, buffer);
+        }
+    }
+
+    // reads a JSON dataset with the streaming loader and writes it in binary form
+    public static void convert(String jsonFile, Path out) throws IOException {
+        write(GraphLoader.loadGraphStreaming(jsonFile), out);
+    }
+
+    // maps the file into a shared arena owned by the returned graph; close it to unmap
+    public static SegmentGraph map(Path path) throws IOException {
+        Arena arena = Arena.ofShared();
+        try {
+            return map(path, arena, arena);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    // maps the file into the caller's arena, which decides when the mapping goes away
+    public static SegmentGraph map(Path path, Arena arena) throws IOException {
+        return map(path, arena, null);
+    }
+
+    private static SegmentGraph map(Path path, Arena arena, Arena owned) throws IOException {
+        MemorySegment file;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) throw new IOException(path + " is too short for a binary graph header");
+            file = channel.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
+        }
+
+        byte[] magic = new byte[MAGIC.length];
+        MemorySegment.copy(file, ValueLayout.JAVA_BYTE, 0, magic, 0, magic.length);
+        if (!hasMagic(magic, magic.length)) throw new IOException(path + " is not a binary graph file");
+        int version = file.get(SegmentGraph.INT, 4);
+        if (version != VERSION) throw new IOException("Unsupported binary graph version " + version + " in " + path);
+
+        int n = file.get(SegmentGraph.INT, 8);
+        int flags = file.get(SegmentGraph.INT, 12);
+        long m = file.get(SegmentGraph.LONG, 16);
+        int source = file.get(SegmentGraph.INT, 24);
+        int modelLength = file.get(SegmentGraph.INT, 28);
+        if (n < 0 || m < 0 || modelLength < 0 || modelLength > MAX_WEIGHT_MODEL_BYTES) {
+            throw new IOException("Corrupt binary graph header in " + path);
+        }
+        byte[] model = new byte[modelLength];
+        MemorySegment.copy(file, ValueLayout.JAVA_BYTE, 32, model, 0, modelLength);
+
+        long offsetsBytes = (n + 1L) * Long.BYTES;
+        long edgeBytes = m * Integer.BYTES;
+        if (file.byteSize() != HEADER_SIZE + offsetsBytes + 2 * edgeBytes) {
+            throw new IOException(path + " has " + file.byteSize() + " bytes, the header describes n=" + n + ", m=" + m);
+        }
+        MemorySegment offsets = file.asSlice(HEADER_SIZE, offsetsBytes);
+        MemorySegment targets = file.asSlice(HEADER_SIZE + offsetsBytes, edgeBytes);
+        MemorySegment weights = file.asSlice(HEADER_SIZE + offsetsBytes + edgeBytes, edgeBytes);
+        // only the ends are checked, a full scan would touch every page of the offsets
+        if (offsets.getAtIndex(SegmentGraph.LONG, 0) != 0 || offsets.getAtIndex(SegmentGraph.LONG, n) != m) {
+            throw new IOException("Corrupt offsets in " + path);
+        }
+
+        return new SegmentGraph(n, offsets, targets, weights, (flags & FLAG_DIRECTED) != 0, source,
+                new String(model, StandardCharsets.UTF_8), owned);
+    }
+
+    private static void ensure(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) drain(channel, buffer);
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // BinaryGraphFormat <input.json> [output.dagb]
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: BinaryGraphFormat <input.json> [output.dagb]");
+            System.exit(1);
+        }
+        String input = args[0];
+        Path output;
+        if (args.length == 2) {
+            output = Paths.get(args[1]);
+        } else {
+            String name = Paths.get(input).getFileName().toString();
+            output = Paths.get(name.endsWith(".json") ? name.substring(0, name.length() - 5) + ".dagb" : name + ".dagb");
+        }
+        convert(input, output);
+        System.out.println("Wrote " + output);
+    }
+}
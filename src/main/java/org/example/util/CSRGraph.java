@@ -0,0 +1,168 @@
+package org.example.util;
+
+import java.util.List;
+
+// Immutable compressed sparse row adjacency: the out-edges of u are the
+// indices offsets[u] .. offsets[u + 1] - 1 of targets/weights.
+// The arrays are shared with callers and must not be modified.
+public class CSRGraph implements GraphAdjacency {
+    private final int n;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    public CSRGraph(int n, int[] offsets, int[] targets, int[] weights) {
+        if (offsets.length != n + 1) {
+            throw new IllegalArgumentException("offsets must have n + 1 entries, got " + offsets.length + " for n=" + n);
+        }
+        int m = offsets[n];
+        if (targets.length < m || weights.length < m) {
+            throw new IllegalArgumentException("targets/weights must hold " + m + " edges");
+        }
+        this.n = n;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    // counting sort by source; edges of the same source keep their input order
+    public static CSRGraph fromGraphLoader(GraphLoader.Graph g) {
+        int n = g.getN();
+        int m = g.getM();
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < m; i++) {
+            offsets[g.getEdgeU(i) + 1]++;
+        }
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+
+        int[] next = new int[n];
+        System.arraycopy(offsets, 0, next, 0, n);
+        int[] targets = new int[m];
+        int[] weights = new int[m];
+        for (int i = 0; i < m; i++) {
+            int pos = next[g.getEdgeU(i)]++;
+            targets[pos] = g.getEdgeV(i);
+            weights[pos] = g.getEdgeW(i);
+        }
+        return new CSRGraph(n, offsets, targets, weights);
+    }
+
+    // unweighted adjacency lists, every weight is 0
+    public static CSRGraph fromAdjacency(List<List<Integer>> adj, int n) {
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = offsets[u] + adj.get(u).size();
+        }
+        int[] targets = new int[offsets[n]];
+        int pos = 0;
+        for (int u = 0; u < n; u++) {
+            for (int v : adj.get(u)) {
+                targets[pos++] = v;
+            }
+        }
+        return new CSRGraph(n, offsets, targets, new int[offsets[n]]);
+    }
+
+    public CSRGraph transpose() {
+        int m = offsets[n];
+        int[] tOffsets = new int[n + 1];
+        for (int e = 0; e < m; e++) {
+            tOffsets[targets[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            tOffsets[v + 1] += tOffsets[v];
+        }
+
+        int[] next = new int[n];
+        System.arraycopy(tOffsets, 0, next, 0, n);
+        int[] tTargets = new int[m];
+        int[] tWeights = new int[m];
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int pos = next[targets[e]]++;
+                tTargets[pos] = u;
+                tWeights[pos] = weights[e];
+            }
+        }
+        return new CSRGraph(n, tOffsets, tTargets, tWeights);
+    }
+
+    // copies any adjacency into heap arrays; needs fewer than 2^31 edges
+    public static CSRGraph copyOf(GraphAdjacency adjacency) {
+        int n = adjacency.getN();
+        long m = adjacency.getM();
+        if (m > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Graph with " + m + " edges does not fit in heap arrays");
+        }
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[(int) m];
+        int[] weights = new int[(int) m];
+        int pos = 0;
+        for (int u = 0; u < n; u++) {
+            for (long e = adjacency.edgeStart(u), end = adjacency.edgeEnd(u); e < end; e++) {
+                targets[pos] = adjacency.target(e);
+                weights[pos] = adjacency.weight(e);
+                pos++;
+            }
+            offsets[u + 1] = pos;
+        }
+        return new CSRGraph(n, offsets, targets, weights);
+    }
+
+    // same structure with another weight array of the same length
+    public CSRGraph withWeights(int[] newWeights) {
+        return new CSRGraph(n, offsets, targets, newWeights);
+    }
+
+    @Override
+    public int getN() {
+        return n;
+    }
+
+    @Override
+    public long getM() {
+        return offsets[n];
+    }
+
+    public int getEdgeCount() {
+        return offsets[n];
+    }
+
+    @Override
+    public long edgeStart(int u) {
+        return offsets[u];
+    }
+
+    @Override
+    public long edgeEnd(int u) {
+        return offsets[u + 1];
+    }
+
+    @Override
+    public int target(long e) {
+        return targets[(int) e];
+    }
+
+    @Override
+    public int weight(long e) {
+        return weights[(int) e];
+    }
+
+    public int outDegree(int u) {
+        return offsets[u + 1] - offsets[u];
+    }
+
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    public int[] getTargets() {
+        return targets;
+    }
+
+    public int[] getWeights() {
+        return weights;
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.util;
+
+// Read-only CSR-shaped view of a directed graph. The out-edges of u are the edge
+// indices edgeStart(u) .. edgeEnd(u) - 1; indices are long so storage outside the
+// heap can hold more than Integer.MAX_VALUE edges.
+public interface GraphAdjacency {
+    int getN();
+
+    long getM();
+
+    long edgeStart(int u);
+
+    long edgeEnd(int u);
+
+    int target(long e);
+
+    int weight(long e);
+}
@@ -0,0 +1,327 @@
+package org.example.util;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.*;
+import java.lang.foreign.Arena;
+import java.util.SplittableRandom;
+
+// Deterministic synthetic graphs. Every call restarts from the seed, so the same
+// parameters always give the same edge sequence; edges are pushed to a sink as they
+// are drawn and never collected unless the caller asks for an in-memory graph.
+public class GraphGenerator {
+
+    public enum Shape {
+        ERDOS_RENYI,
+        POWER_LAW,
+        LAYERED_DAG,
+        LONG_CHAIN,
+        PLANTED_SCC
+    }
+
+    public interface EdgeSink {
+        void edge(int u, int v, int w);
+    }
+
+    public interface WeightDistribution {
+        int next(SplittableRandom random);
+
+        static WeightDistribution constant(int w) {
+            return random -> w;
+        }
+
+        static WeightDistribution uniform(int min, int max) {
+            if (max < min) throw new IllegalArgumentException("max < min: " + max + " < " + min);
+            return random -> min + random.nextInt(max - min + 1);
+        }
+
+        // long-tailed positive weights, e.g. task durations
+        static WeightDistribution exponential(double mean) {
+            return random -> 1 + (int) (-mean * Math.log(1.0 - random.nextDouble()));
+        }
+    }
+
+    private final long seed;
+    private WeightDistribution weights = WeightDistribution.uniform(1, 100);
+    private int componentCount = 10;
+    private int layerCount = 10;
+    private double powerLawExponent = 2.5;
+
+    public GraphGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public void setWeights(WeightDistribution weights) {
+        this.weights = weights;
+    }
+
+    // number of SCCs for PLANTED_SCC
+    public void setComponentCount(int componentCount) {
+        if (componentCount < 1) throw new IllegalArgumentException("componentCount must be positive: " + componentCount);
+        this.componentCount = componentCount;
+    }
+
+    public void setLayerCount(int layerCount) {
+        if (layerCount < 2) throw new IllegalArgumentException("layerCount must be at least 2: " + layerCount);
+        this.layerCount = layerCount;
+    }
+
+    // degree exponent gamma > 2 for POWER_LAW
+    public void setPowerLawExponent(double powerLawExponent) {
+        if (powerLawExponent <= 2.0) throw new IllegalArgumentException("exponent must be > 2: " + powerLawExponent);
+        this.powerLawExponent = powerLawExponent;
+    }
+
+    // ERDOS_RENYI draws each ordered pair with probability m / (n (n - 1)), so m is the expected
+    // edge count; every other shape emits exactly m edges and rejects an m it cannot produce.
+    // No shape emits self-loops; POWER_LAW may repeat an edge.
+    public void generate(Shape shape, int n, int m, EdgeSink sink) {
+        if (n < 1) throw new IllegalArgumentException("n must be positive: " + n);
+        if (m < 0) throw new IllegalArgumentException("m must not be negative: " + m);
+        SplittableRandom random = new SplittableRandom(seed);
+        switch (shape) {
+            case ERDOS_RENYI -> erdosRenyi(n, m, random, sink);
+            case POWER_LAW -> powerLaw(n, m, random, sink);
+            case LAYERED_DAG -> layeredDag(n, m, random, sink);
+            case LONG_CHAIN -> longChain(n, m, random, sink);
+            case PLANTED_SCC -> plantedScc(n, m, random, sink);
+        }
+    }
+
+    public GraphLoader.Graph generateGraph(Shape shape, int n, int m) {
+        IntArrayList us = new IntArrayList(m);
+        IntArrayList vs = new IntArrayList(m);
+        IntArrayList ws = new IntArrayList(m);
+        generate(shape, n, m, (u, v, w) -> {
+            us.add(u);
+            vs.add(v);
+            ws.add(w);
+        });
+        return new GraphLoader.Graph(true, n, us.size(), us.elements(), vs.elements(), ws.elements(), 0, "edge");
+    }
+
+    // two passes over the same deterministic sequence, one counting degrees and one
+    // filling rows, so no intermediate edge list exists next to the CSR arrays
+    public CSRGraph generateCSR(Shape shape, int n, int m) {
+        int[] offsets = new int[n + 1];
+        generate(shape, n, m, (u, v, w) -> offsets[u + 1]++);
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+
+        int[] next = new int[n];
+        System.arraycopy(offsets, 0, next, 0, n);
+        int[] targets = new int[offsets[n]];
+        int[] edgeWeights = new int[offsets[n]];
+        generate(shape, n, m, (u, v, w) -> {
+            int pos = next[u]++;
+            targets[pos] = v;
+            edgeWeights[pos] = w;
+        });
+        return new CSRGraph(n, offsets, targets, edgeWeights);
+    }
+
+    // same two passes as generateCSR, but the rows are written into segments of the arena,
+    // so graphs with more edges than the heap can hold are possible
+    public SegmentGraph generateOffHeap(Shape shape, int n, int m, Arena arena) {
+        return SegmentGraph.build(n, sink -> generate(shape, n, m, sink), arena);
+    }
+
+    // streams the graph in the dataset schema (directed, n, edges, source, weight_model)
+    public void writeJson(Shape shape, int n, int m, OutputStream out) throws IOException {
+        JsonGenerator json = new JsonFactory().createGenerator(out, JsonEncoding.UTF8);
+        json.writeStartObject();
+        json.writeBooleanField("directed", true);
+        json.writeNumberField("n", n);
+        json.writeArrayFieldStart("edges");
+        try {
+            generate(shape, n, m, (u, v, w) -> {
+                try {
+                    json.writeStartObject();
+                    json.writeNumberField("u", u);
+                    json.writeNumberField("v", v);
+                    json.writeNumberField("w", w);
+                    json.writeEndObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        json.writeEndArray();
+        json.writeNumberField("source", 0);
+        json.writeStringField("weight_model", "edge");
+        json.writeEndObject();
+        json.flush();
+    }
+
+    public void writeJson(Shape shape, int n, int m, File file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            writeJson(shape, n, m, out);
+        }
+    }
+
+    // geometric skipping over the n (n - 1) ordered pairs, O(n + m) and no duplicates
+    private void erdosRenyi(int n, int m, SplittableRandom random, EdgeSink sink) {
+        if (n < 2 || m == 0) return;
+        long pairs = (long) n * (n - 1);
+        double p = Math.min(1.0, (double) m / pairs);
+        double logQ = Math.log(1.0 - p);
+        long index = -1;
+        while (true) {
+            if (p >= 1.0) {
+                index++;
+            } else {
+                index += 1 + (long) Math.floor(Math.log(1.0 - random.nextDouble()) / logQ);
+            }
+            if (index >= pairs) return;
+            int u = (int) (index / (n - 1));
+            int k = (int) (index % (n - 1));
+            int v = k < u ? k : k + 1;
+            sink.edge(u, v, weights.next(random));
+        }
+    }
+
+    // Chung-Lu style: both endpoints are drawn with probability proportional to
+    // (rank + 1)^(-1 / (gamma - 1)); ranks are shuffled so hubs are spread over the ids
+    private void powerLaw(int n, int m, SplittableRandom random, EdgeSink sink) {
+        if (n < 2) {
+            requireNoEdges("POWER_LAW", n, m);
+            return;
+        }
+        int[] label = new int[n];
+        for (int i = 0; i < n; i++) label[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = label[i];
+            label[i] = label[j];
+            label[j] = t;
+        }
+
+        double exponent = 1.0 - 1.0 / (powerLawExponent - 1.0);
+        double top = Math.pow(n + 1, exponent);
+        for (int i = 0; i < m; i++) {
+            int u;
+            int v;
+            do {
+                u = rank(random, exponent, top, n);
+                v = rank(random, exponent, top, n);
+            } while (u == v);
+            sink.edge(label[u], label[v], weights.next(random));
+        }
+    }
+
+    private static int rank(SplittableRandom random, double exponent, double top, int n) {
+        double x = Math.pow(1.0 + random.nextDouble() * (top - 1.0), 1.0 / exponent);
+        return Math.min(n - 1, (int) x - 1);
+    }
+
+    // vertices are split into layers in id order; most edges go to the next layer,
+    // the rest skip ahead, so the id order is a topological order
+    private void layeredDag(int n, int m, SplittableRandom random, EdgeSink sink) {
+        int layers = Math.min(layerCount, n);
+        if (layers < 2) {
+            requireNoEdges("LAYERED_DAG", n, m);
+            return;
+        }
+        int width = n / layers;
+        for (int i = 0; i < m; i++) {
+            int layer = random.nextInt(layers - 1);
+            int target = layer + 1;
+            if (layer + 2 < layers && random.nextInt(5) == 0) {
+                target = layer + 2 + random.nextInt(layers - layer - 2);
+            }
+            int u = layerStart(layer, width) + random.nextInt(layerSize(layer, width, layers, n));
+            int v = layerStart(target, width) + random.nextInt(layerSize(target, width, layers, n));
+            sink.edge(u, v, weights.next(random));
+        }
+    }
+
+    private static void requireNoEdges(String shape, int n, int m) {
+        if (m > 0) {
+            throw new IllegalArgumentException(shape + " with n=" + n + " has no edges, m=" + m);
+        }
+    }
+
+    private static int layerStart(int layer, int width) {
+        return layer * width;
+    }
+
+    private static int layerSize(int layer, int width, int layers, int n) {
+        return layer == layers - 1 ? n - layer * width : width;
+    }
+
+    // 0 -> 1 -> ... -> n-1, then forward shortcuts u -> v with u < v
+    private void longChain(int n, int m, SplittableRandom random, EdgeSink sink) {
+        // shortcuts need a vertex two steps ahead, so small chains hold only their chain edges
+        if (n < 3 && m > n - 1) {
+            throw new IllegalArgumentException("LONG_CHAIN with n=" + n + " has at most " + (n - 1) + " edges, m=" + m);
+        }
+        int chain = Math.min(m, n - 1);
+        for (int u = 0; u < chain; u++) {
+            sink.edge(u, u + 1, weights.next(random));
+        }
+        if (n < 3) return;
+        for (int i = chain; i < m; i++) {
+            int u = random.nextInt(n - 2);
+            int span = Math.min(64, n - u - 2);
+            int v = u + 2 + random.nextInt(span);
+            sink.edge(u, v, weights.next(random));
+        }
+    }
+
+    // componentCount contiguous blocks, each closed by a cycle; the remaining edges go
+    // inside a block or from a block to a later one, so exactly componentCount SCCs exist
+    private void plantedScc(int n, int m, SplittableRandom random, EdgeSink sink) {
+        int k = Math.min(componentCount, n);
+        int size = n / k;
+        long cycleEdges = 0;
+        for (int c = 0; c < k; c++) {
+            int s = c == k - 1 ? n - c * size : size;
+            if (s > 1) cycleEdges += s;
+        }
+        if (cycleEdges > m) {
+            throw new IllegalArgumentException("m=" + m + " is too small to plant " + k + " SCCs, need " + cycleEdges);
+        }
+        if (n == 1) {
+            requireNoEdges("PLANTED_SCC", n, m);
+            return;
+        }
+
+        for (int c = 0; c < k; c++) {
+            int start = c * size;
+            int s = c == k - 1 ? n - start : size;
+            if (s < 2) continue;
+            for (int i = 0; i < s; i++) {
+                sink.edge(start + i, start + (i + 1) % s, weights.next(random));
+            }
+        }
+
+        for (long i = cycleEdges; i < m; i++) {
+            // a single-vertex block can only point forward, so the last block must have two vertices
+            int c;
+            int start;
+            int s;
+            do {
+                c = random.nextInt(k);
+                start = c * size;
+                s = c == k - 1 ? n - start : size;
+            } while (s < 2 && c == k - 1);
+            int u = start + random.nextInt(s);
+            int v;
+            if (c + 1 < k && (s < 2 || random.nextBoolean())) {
+                int d = c + 1 + random.nextInt(k - c - 1);
+                int dStart = d * size;
+                int dSize = d == k - 1 ? n - dStart : size;
+                v = dStart + random.nextInt(dSize);
+            } else {
+                // any other vertex of the block, never u itself
+                v = start + (u - start + 1 + random.nextInt(s - 1)) % s;
+            }
+            sink.edge(u, v, weights.next(random));
+        }
+    }
+}
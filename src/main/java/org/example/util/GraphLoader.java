@@ -1,9 +1,15 @@
 package org.example.util;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.*;
+import java.lang.foreign.Arena;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,15 +20,69 @@ public class GraphLoader {
         private final boolean directed;
         private final int n;
         private final List<Edge> edges;
+        private final long m;
+        private final int[] edgeU;
+        private final int[] edgeV;
+        private final int[] edgeW;
+        private final GraphAdjacency adjacency;
         private final int source;
         private final String weightModel;
+        private final int[] nodeWeights;
 
         public Graph(boolean directed, int n, List<Edge> edges, int source, String weightModel) {
+            this(directed, n, edges, source, weightModel, null);
+        }
+
+        // nodeWeights holds one weight per vertex for weight_model "node", or null
+        public Graph(boolean directed, int n, List<Edge> edges, int source, String weightModel, int[] nodeWeights) {
             this.directed = directed;
             this.n = n;
             this.edges = edges;
+            this.m = edges.size();
+            this.edgeU = null;
+            this.edgeV = null;
+            this.edgeW = null;
+            this.adjacency = null;
             this.source = source;
             this.weightModel = weightModel;
+            this.nodeWeights = requireOnePerVertex(nodeWeights, n);
+        }
+
+        // primitive edge storage; only the first m entries of each array are used
+        public Graph(boolean directed, int n, int m, int[] edgeU, int[] edgeV, int[] edgeW, int source, String weightModel) {
+            this(directed, n, m, edgeU, edgeV, edgeW, source, weightModel, null);
+        }
+
+        public Graph(boolean directed, int n, int m, int[] edgeU, int[] edgeV, int[] edgeW, int source, String weightModel,
+                     int[] nodeWeights) {
+            this.directed = directed;
+            this.n = n;
+            this.m = m;
+            this.edgeU = edgeU;
+            this.edgeV = edgeV;
+            this.edgeW = edgeW;
+            this.adjacency = null;
+            this.edges = new EdgeView();
+            this.source = source;
+            this.weightModel = weightModel;
+            this.nodeWeights = requireOnePerVertex(nodeWeights, n);
+        }
+
+        // edges come from an existing adjacency, e.g. a memory-mapped binary file; edge i is
+        // the i-th edge in CSR order and its source is found by binary search over the offsets.
+        // The adjacency may hold 2^31 edges or more, the int-indexed edge view then refuses access
+        public Graph(boolean directed, GraphAdjacency adjacency, int source, String weightModel) {
+            this.directed = directed;
+            this.n = adjacency.getN();
+            this.m = adjacency.getM();
+            this.edgeU = null;
+            this.edgeV = null;
+            this.edgeW = null;
+            this.adjacency = adjacency;
+            this.edges = new EdgeView();
+            this.source = source;
+            this.weightModel = weightModel;
+            this.nodeWeights = null;
         }
 
         public boolean isDirected() {
@@ -34,9 +94,56 @@ public class GraphLoader {
         }
 
         public List<Edge> getEdges() {
+            if (adjacency != null) getM();
             return edges;
         }
 
+        // edge count for the int-indexed accessors; use getEdgeCount for graphs that may be larger
+        public int getM() {
+            if (m > Integer.MAX_VALUE) {
+                throw new IllegalStateException(m + " edges do not fit the int-indexed edge list, use toAdjacency()");
+            }
+            return (int) m;
+        }
+
+        public long getEdgeCount() {
+            return m;
+        }
+
+        public int getEdgeU(int i) {
+            if (edgeU != null) return edgeU[i];
+            if (adjacency != null) return sourceOf(i);
+            return edges.get(i).getU();
+        }
+
+        public int getEdgeV(int i) {
+            if (edgeV != null) return edgeV[i];
+            if (adjacency != null) return adjacency.target(i);
+            return edges.get(i).getV();
+        }
+
+        public int getEdgeW(int i) {
+            if (edgeW != null) return edgeW[i];
+            if (adjacency != null) return adjacency.weight(i);
+            return edges.get(i).getW();
+        }
+
+        // the adjacency this graph was loaded as, otherwise a CSRGraph built from the edges
+        public GraphAdjacency toAdjacency() {
+            return adjacency != null ? adjacency : CSRGraph.fromGraphLoader(this);
+        }
+
+        private int sourceOf(long e) {
+            int lo = 0;
+            int hi = n - 1;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (adjacency.edgeEnd(mid) > e) hi = mid;
+                else lo = mid + 1;
+            }
+            return lo;
+        }
+
         public int getSource() {
             return source;
         }
@@ -44,6 +151,32 @@ public class GraphLoader {
         public String getWeightModel() {
             return weightModel;
         }
+
+        // one weight per vertex for weight_model "node", null when the graph has none
+        public int[] getNodeWeights() {
+            return nodeWeights;
+        }
+
+        private static int[] requireOnePerVertex(int[] nodeWeights, int n) {
+            if (nodeWeights != null && nodeWeights.length != n) {
+                throw new IllegalArgumentException("node weights must have n=" + n + " entries, got " + nodeWeights.length);
+            }
+            return nodeWeights;
+        }
+
+        // read-only Edge view over the primitive arrays, edges are created on access
+        private class EdgeView extends AbstractList<Edge> {
+            @Override
+            public Edge get(int index) {
+                if (index < 0 || index >= m) throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + m);
+                return new Edge(getEdgeU(index), getEdgeV(index), getEdgeW(index));
+            }
+
+            @Override
+            public int size() {
+                return getM();
+            }
+        }
     }
 
     public static class Edge {
@@ -71,6 +204,187 @@ public class GraphLoader {
     }
 
     public static Graph loadGraph(String filename) throws IOException {
+        try (InputStream input = openStream(filename)) {
+            JsonNode root = mapper.readTree(input);
+
+            boolean directed = root.path("directed").asBoolean(true);
+            int n = root.path("n").asInt();
+            JsonNode edgesArray = root.path("edges");
+            List<Edge> edges = new ArrayList<>();
+            if (edgesArray.isArray()) {
+                for (JsonNode edgeNode : edgesArray) {
+                    int u = edgeNode.path("u").asInt();
+                    int v = edgeNode.path("v").asInt();
+                    int w = edgeNode.path("w").asInt();
+                    edges.add(new Edge(u, v, w));
+                }
+            }
+            int source = root.path("source").asInt(0);
+
+            String weightModel = "edge";
+            if (root.has("weight_model")) weightModel = root.get("weight_model").asText();
+            else if (root.has("weightModel")) weightModel = root.get("weightModel").asText();
+
+            int[] nodeWeights = null;
+            JsonNode nodeWeightsArray = root.path("node_weights");
+            if (nodeWeightsArray.isArray()) {
+                nodeWeights = new int[nodeWeightsArray.size()];
+                for (int i = 0; i < nodeWeights.length; i++) {
+                    nodeWeights[i] = nodeWeightsArray.get(i).asInt();
+                }
+                nodeWeights = checkNodeWeights(nodeWeights, n);
+            }
+            return new Graph(directed, n, edges, source, weightModel, nodeWeights);
+        }
+    }
+
+    // picks the format from the first bytes: binary graph files are memory-mapped and used
+    // in place, anything else is read as JSON with the streaming loader
+    public static Graph loadGraph(Path path) throws IOException {
+        if (BinaryGraphFormat.isBinary(path)) {
+            SegmentGraph mapped = BinaryGraphFormat.map(path, Arena.ofAuto());
+            return new Graph(mapped.isDirected(), mapped, mapped.getSource(), mapped.getWeightModel());
+        }
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(path))) {
+            return readGraphStreaming(input);
+        }
+    }
+
+    public static Graph loadGraphStreaming(String filename) throws IOException {
+        try (InputStream input = openStream(filename)) {
+            return readGraphStreaming(input);
+        }
+    }
+
+    // single pass over the token stream, edges go straight into int arrays without a JsonNode tree
+    public static Graph readGraphStreaming(InputStream input) throws IOException {
+        IntArrayList us = new IntArrayList(1024);
+        IntArrayList vs = new IntArrayList(1024);
+        IntArrayList ws = new IntArrayList(1024);
+        Graph header = streamGraph(input, (u, v, w) -> {
+            us.add(u);
+            vs.add(v);
+            ws.add(w);
+        });
+        return new Graph(header.isDirected(), header.getN(), us.size(), us.elements(), vs.elements(), ws.elements(),
+                header.getSource(), header.getWeightModel(), header.getNodeWeights());
+    }
+
+    // Off-heap CSR for JSON graphs whose edges do not fit on the heap: one streaming pass
+    // reads the header, SegmentGraph.build makes two more. Binary files are mapped instead.
+    // node_weights are not kept, a SegmentGraph only holds the edges.
+    public static SegmentGraph loadGraphOffHeap(Path path, Arena arena) throws IOException {
+        if (BinaryGraphFormat.isBinary(path)) {
+            return BinaryGraphFormat.map(path, arena);
+        }
+        Graph header = streamGraph(path, (u, v, w) -> { });
+        try {
+            return SegmentGraph.build(header.getN(), sink -> {
+                try {
+                    streamGraph(path, sink);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, header.isDirected(), header.getSource(), header.getWeightModel(), arena);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Graph streamGraph(Path path, GraphGenerator.EdgeSink sink) throws IOException {
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(path))) {
+            return streamGraph(input, sink);
+        }
+    }
+
+    // pushes every edge to the sink and returns the header fields as an edgeless Graph
+    private static Graph streamGraph(InputStream input, GraphGenerator.EdgeSink sink) throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object at the top level of the graph file");
+            }
+
+            boolean directed = true;
+            int n = 0;
+            int source = 0;
+            String weightModel = null;
+            String weightModelAlt = null;
+            int[] nodeWeights = null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case "directed" -> directed = parser.getValueAsBoolean(true);
+                    case "n" -> n = parser.getValueAsInt(0);
+                    case "source" -> source = parser.getValueAsInt(0);
+                    case "weight_model" -> weightModel = scalarText(parser, token);
+                    case "weightModel" -> weightModelAlt = scalarText(parser, token);
+                    case "node_weights" -> {
+                        if (token == JsonToken.START_ARRAY) nodeWeights = readInts(parser);
+                        else parser.skipChildren();
+                    }
+                    case "edges" -> {
+                        if (token == JsonToken.START_ARRAY) readEdges(parser, sink);
+                        else parser.skipChildren();
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+
+            if (weightModel == null) weightModel = weightModelAlt != null ? weightModelAlt : "edge";
+
+            if (nodeWeights != null) nodeWeights = checkNodeWeights(nodeWeights, n);
+            return new Graph(directed, n, 0, new int[0], new int[0], new int[0], source, weightModel, nodeWeights);
+        }
+    }
+
+    private static int[] readInts(JsonParser parser) throws IOException {
+        IntArrayList values = new IntArrayList();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token.isScalarValue()) values.add(parser.getValueAsInt(0));
+            else parser.skipChildren();
+        }
+        return values.toArray();
+    }
+
+    private static int[] checkNodeWeights(int[] nodeWeights, int n) throws IOException {
+        if (nodeWeights.length != n) {
+            throw new IOException("node_weights has " + nodeWeights.length + " entries for n=" + n);
+        }
+        return nodeWeights;
+    }
+
+    private static void readEdges(JsonParser parser, GraphGenerator.EdgeSink sink) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            int u = 0, v = 0, w = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "u" -> u = parser.getValueAsInt(0);
+                    case "v" -> v = parser.getValueAsInt(0);
+                    case "w" -> w = parser.getValueAsInt(0);
+                    default -> parser.skipChildren();
+                }
+            }
+            sink.edge(u, v, w);
+        }
+    }
+
+    private static String scalarText(JsonParser parser, JsonToken token) throws IOException {
+        if (token.isScalarValue()) return parser.getText();
+        parser.skipChildren();
+        return "";
+    }
+
+    private static InputStream openStream(String filename) throws IOException {
         InputStream is = null;
 
         is = Thread.currentThread().getContextClassLoader().getResourceAsStream(filename);
@@ -102,28 +416,6 @@ public class GraphLoader {
             throw new FileNotFoundException(filename + " not found in classpath or file system");
         }
 
-        try (InputStream input = is) {
-            JsonNode root = mapper.readTree(input);
-
-            boolean directed = root.path("directed").asBoolean(true);
-            int n = root.path("n").asInt();
-            JsonNode edgesArray = root.path("edges");
-            List<Edge> edges = new ArrayList<>();
-            if (edgesArray.isArray()) {
-                for (JsonNode edgeNode : edgesArray) {
-                    int u = edgeNode.path("u").asInt();
-                    int v = edgeNode.path("v").asInt();
-                    int w = edgeNode.path("w").asInt();
-                    edges.add(new Edge(u, v, w));
-                }
-            }
-            int source = root.path("source").asInt(0);
-
-            String weightModel = "edge";
-            if (root.has("weight_model")) weightModel = root.get("weight_model").asText();
-            else if (root.has("weightModel")) weightModel = root.get("weightModel").asText();
-
-            return new Graph(directed, n, edges, source, weightModel);
-        }
+        return is;
     }
 }
@@ -0,0 +1,67 @@
+package org.example.util;
+
+import java.util.Arrays;
+
+public class IntArrayList {
+    private int[] data;
+    private int size;
+
+    public IntArrayList() {
+        this(16);
+    }
+
+    public IntArrayList(int initialCapacity) {
+        this.data = new int[Math.max(initialCapacity, 1)];
+        this.size = 0;
+    }
+
+    public void add(int value) {
+        if (size == data.length) {
+            grow(size + 1);
+        }
+        data[size++] = value;
+    }
+
+    public int get(int index) {
+        if (index >= size) throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        return data[index];
+    }
+
+    public void set(int index, int value) {
+        if (index >= size) throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        data[index] = value;
+    }
+
+    public int removeLast() {
+        if (size == 0) throw new IndexOutOfBoundsException("removeLast on empty list");
+        return data[--size];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // backing array, valid up to size(); shared, not copied
+    public int[] elements() {
+        return data;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    private void grow(int minCapacity) {
+        // grow by 1.5x so the slack on a huge list stays bounded
+        int newCapacity = data.length + (data.length >> 1) + 1;
+        if (newCapacity < minCapacity || newCapacity < 0) newCapacity = minCapacity;
+        data = Arrays.copyOf(data, newCapacity);
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.util;
+
+import java.util.Arrays;
+
+public class IntMinHeap {
+    private int[] heap;
+    private int size;
+
+    public IntMinHeap() {
+        this(16);
+    }
+
+    public IntMinHeap(int initialCapacity) {
+        this.heap = new int[Math.max(initialCapacity, 1)];
+    }
+
+    public void push(int value) {
+        if (size == heap.length) heap = Arrays.copyOf(heap, size + (size >> 1) + 1);
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= value) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = value;
+    }
+
+    public int pop() {
+        if (size == 0) throw new IllegalStateException("pop on empty heap");
+        int result = heap[0];
+        int last = heap[--size];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+            if (last <= heap[child]) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return result;
+    }
+
+    public int peek() {
+        if (size == 0) throw new IllegalStateException("peek on empty heap");
+        return heap[0];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,202 @@
+package org.example.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Aggregates the Metrics of finished runs from any number of threads. Counters are
+// LongAdders and run times go into a LatencyHistogram per algorithm name, so recording
+// never blocks; snapshots are exported as Prometheus text or JSON.
+public class MetricsRegistry {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final String[] QUANTILE_LABELS = {"0.5", "0.9", "0.99", "0.999"};
+    private static final String[] QUANTILE_KEYS = {"p50", "p90", "p99", "p999"};
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final ConcurrentHashMap<String, AlgorithmStats> stats = new ConcurrentHashMap<>();
+
+    public static class AlgorithmStats {
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder dfsVisits = new LongAdder();
+        private final LongAdder edgeTraversals = new LongAdder();
+        private final LongAdder queuePops = new LongAdder();
+        private final LongAdder queuePushes = new LongAdder();
+        private final LongAdder relaxations = new LongAdder();
+        private final LongAdder verticesTouched = new LongAdder();
+        private final LongAdder cacheHits = new LongAdder();
+        private final LongAdder cacheMisses = new LongAdder();
+        private final LatencyHistogram latencyNanos = new LatencyHistogram();
+
+        public long getRuns() {
+            return runs.sum();
+        }
+
+        public long getDfsVisits() {
+            return dfsVisits.sum();
+        }
+
+        public long getEdgeTraversals() {
+            return edgeTraversals.sum();
+        }
+
+        public long getQueuePops() {
+            return queuePops.sum();
+        }
+
+        public long getQueuePushes() {
+            return queuePushes.sum();
+        }
+
+        public long getRelaxations() {
+            return relaxations.sum();
+        }
+
+        public long getVerticesTouched() {
+            return verticesTouched.sum();
+        }
+
+        public long getCacheHits() {
+            return cacheHits.sum();
+        }
+
+        public long getCacheMisses() {
+            return cacheMisses.sum();
+        }
+
+        public LatencyHistogram getLatencyNanos() {
+            return latencyNanos;
+        }
+    }
+
+    // adds the counters and the elapsed time of one finished run
+    public void record(String algorithm, Metrics metrics) {
+        AlgorithmStats s = stats(algorithm);
+        s.runs.increment();
+        s.dfsVisits.add(metrics.getDfsVisits());
+        s.edgeTraversals.add(metrics.getEdgeTraversals());
+        s.queuePops.add(metrics.getQueuePops());
+        s.queuePushes.add(metrics.getQueuePushes());
+        s.relaxations.add(metrics.getRelaxations());
+        s.verticesTouched.add(metrics.getVerticesTouched());
+        s.cacheHits.add(metrics.getCacheHits());
+        s.cacheMisses.add(metrics.getCacheMisses());
+        s.latencyNanos.record(metrics.getElapsedTimeNanos());
+    }
+
+    public AlgorithmStats stats(String algorithm) {
+        return stats.computeIfAbsent(algorithm, name -> new AlgorithmStats());
+    }
+
+    public void reset() {
+        stats.clear();
+    }
+
+    public String toPrometheus() {
+        Map<String, AlgorithmStats> sorted = new TreeMap<>(stats);
+        StringBuilder out = new StringBuilder();
+        counter(out, sorted, "graph_algorithm_runs_total", "Finished runs", AlgorithmStats::getRuns);
+        counter(out, sorted, "graph_algorithm_dfs_visits_total", "DFS vertex visits", AlgorithmStats::getDfsVisits);
+        counter(out, sorted, "graph_algorithm_edge_traversals_total", "Edges scanned", AlgorithmStats::getEdgeTraversals);
+        counter(out, sorted, "graph_algorithm_queue_pops_total", "Queue pops", AlgorithmStats::getQueuePops);
+        counter(out, sorted, "graph_algorithm_queue_pushes_total", "Queue pushes", AlgorithmStats::getQueuePushes);
+        counter(out, sorted, "graph_algorithm_relaxations_total", "Edge relaxations", AlgorithmStats::getRelaxations);
+        counter(out, sorted, "graph_algorithm_vertices_touched_total", "Vertices revisited by incremental repair", AlgorithmStats::getVerticesTouched);
+        counter(out, sorted, "graph_algorithm_cache_hits_total", "Results served from a result cache", AlgorithmStats::getCacheHits);
+        counter(out, sorted, "graph_algorithm_cache_misses_total", "Results computed after a cache miss", AlgorithmStats::getCacheMisses);
+
+        out.append("# HELP graph_algorithm_latency_seconds Run time per algorithm\n");
+        out.append("# TYPE graph_algorithm_latency_seconds summary\n");
+        for (Map.Entry<String, AlgorithmStats> entry : sorted.entrySet()) {
+            String label = escape(entry.getKey());
+            LatencyHistogram h = entry.getValue().latencyNanos;
+            for (int i = 0; i < QUANTILES.length; i++) {
+                out.append(String.format(Locale.ROOT, "graph_algorithm_latency_seconds{algorithm=\"%s\",quantile=\"%s\"} %.9f%n",
+                        label, QUANTILE_LABELS[i], h.valueAtQuantile(QUANTILES[i]) / 1e9));
+            }
+            out.append(String.format(Locale.ROOT, "graph_algorithm_latency_seconds_sum{algorithm=\"%s\"} %.9f%n", label, h.getSum() / 1e9));
+            out.append(String.format(Locale.ROOT, "graph_algorithm_latency_seconds_count{algorithm=\"%s\"} %d%n", label, h.getCount()));
+        }
+        return out.toString();
+    }
+
+    public String toJson() {
+        ObjectNode root = mapper.createObjectNode();
+        for (Map.Entry<String, AlgorithmStats> entry : new TreeMap<>(stats).entrySet()) {
+            AlgorithmStats s = entry.getValue();
+            ObjectNode node = root.putObject(entry.getKey());
+            node.put("runs", s.getRuns());
+            node.put("dfsVisits", s.getDfsVisits());
+            node.put("edgeTraversals", s.getEdgeTraversals());
+            node.put("queuePops", s.getQueuePops());
+            node.put("queuePushes", s.getQueuePushes());
+            node.put("relaxations", s.getRelaxations());
+            node.put("verticesTouched", s.getVerticesTouched());
+            node.put("cacheHits", s.getCacheHits());
+            node.put("cacheMisses", s.getCacheMisses());
+            ObjectNode latency = node.putObject("latencyNanos");
+            latency.put("count", s.latencyNanos.getCount());
+            latency.put("sum", s.latencyNanos.getSum());
+            latency.put("max", s.latencyNanos.getMax());
+            for (int i = 0; i < QUANTILES.length; i++) {
+                latency.put(QUANTILE_KEYS[i], s.latencyNanos.valueAtQuantile(QUANTILES[i]));
+            }
+        }
+        return root.toString();
+    }
+
+    public void writePrometheus(Path file) throws IOException {
+        Files.writeString(file, toPrometheus());
+    }
+
+    public void writeJson(Path file) throws IOException {
+        Files.writeString(file, toJson());
+    }
+
+    // serves /metrics (Prometheus text) and /metrics.json on 127.0.0.1; stop it with server.stop(0)
+    public HttpServer serve(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext("/metrics.json", exchange -> respond(exchange, "application/json", toJson()));
+        server.createContext("/metrics", exchange -> respond(exchange, "text/plain; version=0.0.4", toPrometheus()));
+        server.start();
+        return server;
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private interface Counter {
+        long get(AlgorithmStats stats);
+    }
+
+    private static void counter(StringBuilder out, Map<String, AlgorithmStats> sorted, String name, String help, Counter counter) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" counter\n");
+        for (Map.Entry<String, AlgorithmStats> entry : sorted.entrySet()) {
+            out.append(name).append("{algorithm=\"").append(escape(entry.getKey())).append("\"} ")
+                    .append(counter.get(entry.getValue())).append('\n');
+        }
+    }
+
+    private static String escape(String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,170 @@
+package org.example.util;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+// CSR adjacency whose arrays live in MemorySegments outside the Java heap, either a
+// memory-mapped binary graph file or memory allocated from an Arena; edges are read
+// straight from the segments, so only O(n) state of the algorithms stays on the heap.
+// offsets holds n + 1 longs, targets and weights m ints each, all little-endian.
+public class SegmentGraph implements GraphAdjacency, AutoCloseable {
+    static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG.withOrder(ByteOrder.LITTLE_ENDIAN);
+    static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private final int n;
+    private final long m;
+    private final MemorySegment offsets;
+    private final MemorySegment targets;
+    private final MemorySegment weights;
+    private final boolean directed;
+    private final int source;
+    private final String weightModel;
+    private final Arena ownedArena;
+
+    // replays the same edge sequence on every call, build reads it twice
+    public interface EdgeSource {
+        void forEachEdge(GraphGenerator.EdgeSink sink);
+    }
+
+    // ownedArena is closed by close(), pass null when the caller manages the arena
+    SegmentGraph(int n, MemorySegment offsets, MemorySegment targets, MemorySegment weights,
+                 boolean directed, int source, String weightModel, Arena ownedArena) {
+        this.n = n;
+        this.m = offsets.getAtIndex(LONG, n);
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.directed = directed;
+        this.source = source;
+        this.weightModel = weightModel;
+        this.ownedArena = ownedArena;
+    }
+
+    public static SegmentGraph build(int n, EdgeSource edges, Arena arena) {
+        return build(n, edges, true, 0, "edge", arena);
+    }
+
+    // Two passes over the edges, one counting out-degrees and one filling the rows, so
+    // nothing proportional to m is allocated on the heap. Degrees are counted two slots
+    // ahead: after the prefix sum offsets[u + 1] is the start of row u and serves as its
+    // fill cursor, finishing as the end of row u, which leaves offsets[0..n] correct.
+    // The fixed row ends are kept on the heap (O(n)) to catch a source that replays a
+    // different sequence the second time.
+    public static SegmentGraph build(int n, EdgeSource edges, boolean directed, int source,
+                                     String weightModel, Arena arena) {
+        MemorySegment offsets = arena.allocate((n + 2L) * Long.BYTES, Long.BYTES);
+        edges.forEachEdge((u, v, w) -> {
+            if (u < 0 || u >= n || v < 0 || v >= n) {
+                throw new IllegalArgumentException("Edge " + u + " -> " + v + " is out of range for n=" + n);
+            }
+            offsets.setAtIndex(LONG, u + 2L, offsets.getAtIndex(LONG, u + 2L) + 1);
+        });
+        for (long i = 2; i < n + 2L; i++) {
+            offsets.setAtIndex(LONG, i, offsets.getAtIndex(LONG, i) + offsets.getAtIndex(LONG, i - 1));
+        }
+
+        long m = offsets.getAtIndex(LONG, n + 1L);
+        long[] rowEnd = new long[n];
+        MemorySegment.copy(offsets, LONG, 2L * Long.BYTES, rowEnd, 0, n);
+        MemorySegment targets = arena.allocate(m * Integer.BYTES, Integer.BYTES);
+        MemorySegment weights = arena.allocate(m * Integer.BYTES, Integer.BYTES);
+        edges.forEachEdge((u, v, w) -> {
+            long pos = offsets.getAtIndex(LONG, u + 1L);
+            if (u < 0 || u >= n || pos >= rowEnd[u]) {
+                throw new IllegalStateException("Edge source replayed a different sequence at vertex " + u);
+            }
+            offsets.setAtIndex(LONG, u + 1L, pos + 1);
+            targets.setAtIndex(INT, pos, v);
+            weights.setAtIndex(INT, pos, w);
+        });
+        for (int u = 0; u < n; u++) {
+            if (offsets.getAtIndex(LONG, u + 1L) != rowEnd[u]) {
+                throw new IllegalStateException("Edge source replayed a different sequence at vertex " + u);
+            }
+        }
+        return new SegmentGraph(n, offsets.asSlice(0, (n + 1L) * Long.BYTES), targets, weights,
+                directed, source, weightModel, null);
+    }
+
+    // off-heap copy of any adjacency; heap CSR arrays are copied in bulk. A SegmentGraph
+    // keeps its header fields, any other adjacency gets the defaults of build(n, edges, arena)
+    public static SegmentGraph copyOf(GraphAdjacency graph, Arena arena) {
+        if (graph instanceof SegmentGraph segments) {
+            return copyOf(graph, segments.directed, segments.source, segments.weightModel, arena);
+        }
+        return copyOf(graph, true, 0, "edge", arena);
+    }
+
+    public static SegmentGraph copyOf(GraphAdjacency graph, boolean directed, int source,
+                                      String weightModel, Arena arena) {
+        int n = graph.getN();
+        long m = graph.getM();
+        MemorySegment offsets = arena.allocate((n + 1L) * Long.BYTES, Long.BYTES);
+        MemorySegment targets = arena.allocate(m * Integer.BYTES, Integer.BYTES);
+        MemorySegment weights = arena.allocate(m * Integer.BYTES, Integer.BYTES);
+        for (int u = 0; u < n; u++) {
+            offsets.setAtIndex(LONG, u, graph.edgeStart(u));
+        }
+        offsets.setAtIndex(LONG, n, m);
+        if (graph instanceof CSRGraph csr) {
+            MemorySegment.copy(csr.getTargets(), 0, targets, INT, 0, (int) m);
+            MemorySegment.copy(csr.getWeights(), 0, weights, INT, 0, (int) m);
+        } else {
+            for (long e = 0; e < m; e++) {
+                targets.setAtIndex(INT, e, graph.target(e));
+                weights.setAtIndex(INT, e, graph.weight(e));
+            }
+        }
+        return new SegmentGraph(n, offsets, targets, weights, directed, source, weightModel, null);
+    }
+
+    @Override
+    public int getN() {
+        return n;
+    }
+
+    @Override
+    public long getM() {
+        return m;
+    }
+
+    @Override
+    public long edgeStart(int u) {
+        return offsets.getAtIndex(LONG, u);
+    }
+
+    @Override
+    public long edgeEnd(int u) {
+        return offsets.getAtIndex(LONG, u + 1L);
+    }
+
+    @Override
+    public int target(long e) {
+        return targets.getAtIndex(INT, e);
+    }
+
+    @Override
+    public int weight(long e) {
+        return weights.getAtIndex(INT, e);
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public String getWeightModel() {
+        return weightModel;
+    }
+
+    // unmaps/frees the segments when this graph owns its arena; reading afterwards throws
+    @Override
+    public void close() {
+        if (ownedArena != null) ownedArena.close();
+    }
+}
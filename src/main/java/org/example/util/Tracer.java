@@ -0,0 +1,183 @@
+package org.example.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Nested timing spans for pipeline phases. A span is opened with try-with-resources and
+// nests under whatever span is open on the same thread; on close it keeps its wall time,
+// the bytes the thread allocated meanwhile and any counters attached to it. Finished spans
+// export as Chrome trace events (chrome://tracing, Perfetto, speedscope).
+public class Tracer {
+    // records nothing, span() hands out a shared no-op span
+    public static final Tracer DISABLED = new Tracer(false);
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final com.sun.management.ThreadMXBean threads = allocationBean();
+
+    private final boolean enabled;
+    private final long epoch = System.nanoTime();
+    private final ConcurrentLinkedQueue<Span> finished = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<ArrayDeque<Span>> open = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public Tracer() {
+        this(true);
+    }
+
+    private Tracer(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public static class Span implements AutoCloseable {
+        private static final Span NOOP = new Span(null, "", 0, 0);
+
+        private final Tracer tracer;
+        private final String name;
+        private final int depth;
+        private final long threadId;
+        private final long startNanos;
+        private final long startAllocated;
+        private final Map<String, Long> counters = new LinkedHashMap<>();
+        private long endNanos;
+        private long allocatedBytes = -1;
+
+        private Span(Tracer tracer, String name, int depth, long threadId) {
+            this.tracer = tracer;
+            this.name = name;
+            this.depth = depth;
+            this.threadId = threadId;
+            this.startAllocated = tracer == null ? -1 : allocatedBytes();
+            this.startNanos = System.nanoTime();
+        }
+
+        public Span counter(String counter, long value) {
+            if (tracer != null) counters.merge(counter, value, Long::sum);
+            return this;
+        }
+
+        // attaches the non-zero counters of an algorithm's Metrics
+        public Span metrics(Metrics metrics) {
+            if (tracer == null) return this;
+            if (metrics.getDfsVisits() != 0) counter("dfsVisits", metrics.getDfsVisits());
+            if (metrics.getEdgeTraversals() != 0) counter("edgeTraversals", metrics.getEdgeTraversals());
+            if (metrics.getQueuePops() != 0) counter("queuePops", metrics.getQueuePops());
+            if (metrics.getQueuePushes() != 0) counter("queuePushes", metrics.getQueuePushes());
+            if (metrics.getRelaxations() != 0) counter("relaxations", metrics.getRelaxations());
+            if (metrics.getVerticesTouched() != 0) counter("verticesTouched", metrics.getVerticesTouched());
+            if (metrics.getCacheHits() != 0) counter("cacheHits", metrics.getCacheHits());
+            if (metrics.getCacheMisses() != 0) counter("cacheMisses", metrics.getCacheMisses());
+            return this;
+        }
+
+        @Override
+        public void close() {
+            if (tracer == null || endNanos != 0) return;
+            endNanos = System.nanoTime();
+            long allocated = allocatedBytes();
+            if (allocated >= 0 && startAllocated >= 0) allocatedBytes = allocated - startAllocated;
+            tracer.finish(this);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public long getThreadId() {
+            return threadId;
+        }
+
+        // relative to the creation of the tracer
+        public long getStartNanos() {
+            return startNanos - tracer.epoch;
+        }
+
+        public long getDurationNanos() {
+            return endNanos - startNanos;
+        }
+
+        // -1 when the JVM does not report per-thread allocation
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        public Map<String, Long> getCounters() {
+            return Collections.unmodifiableMap(counters);
+        }
+    }
+
+    public Span span(String name) {
+        if (!enabled) return Span.NOOP;
+        ArrayDeque<Span> stack = open.get();
+        Span span = new Span(this, name, stack.size(), Thread.currentThread().threadId());
+        stack.push(span);
+        return span;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // finished spans in the order they were closed
+    public List<Span> getSpans() {
+        return new ArrayList<>(finished);
+    }
+
+    public void clear() {
+        finished.clear();
+    }
+
+    // Chrome trace event format: one complete ("X") event per span, times in microseconds
+    public String toChromeTrace() {
+        ObjectNode root = mapper.createObjectNode();
+        ArrayNode events = root.putArray("traceEvents");
+        for (Span span : finished) {
+            ObjectNode event = events.addObject();
+            event.put("name", span.name);
+            event.put("cat", "pipeline");
+            event.put("ph", "X");
+            event.put("ts", span.getStartNanos() / 1_000.0);
+            event.put("dur", span.getDurationNanos() / 1_000.0);
+            event.put("pid", ProcessHandle.current().pid());
+            event.put("tid", span.threadId);
+            ObjectNode args = event.putObject("args");
+            args.put("allocatedBytes", span.allocatedBytes);
+            span.counters.forEach(args::put);
+        }
+        root.put("displayTimeUnit", "ms");
+        return root.toString();
+    }
+
+    public void writeChromeTrace(Path file) throws IOException {
+        Files.writeString(file, toChromeTrace());
+    }
+
+    private void finish(Span span) {
+        // a span closed out of order only takes itself off the stack
+        open.get().remove(span);
+        finished.add(span);
+    }
+
+    private static long allocatedBytes() {
+        return threads == null ? -1 : threads.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            if (!bean.isThreadAllocatedMemoryEnabled()) bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        }
+        return null;
+    }
+}
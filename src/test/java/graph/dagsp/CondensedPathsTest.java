@@ -0,0 +1,163 @@
+package graph.dagsp;
+
+import org.example.graph.dagsp.CondensedPaths;
+import org.example.graph.dagsp.DAGShortestPath;
+import org.example.graph.pipeline.GraphPipeline;
+import org.example.graph.scc.TarjanSCC;
+import org.example.graph.topo.TopologicalSort;
+import org.example.util.CSRGraph;
+import org.example.util.GraphGenerator;
+import org.example.util.GraphLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CondensedPathsTest {
+
+    // {0, 1, 2} and {3, 4} are cycles, 5 hangs off the second one
+    private static CSRGraph cyclicGraph() {
+        int[] u = {0, 1, 2, 2, 0, 3, 4, 4};
+        int[] v = {1, 2, 0, 3, 3, 4, 3, 5};
+        int[] w = {1, 2, 3, 5, 4, 1, 1, 2};
+        return CSRGraph.fromGraphLoader(new GraphLoader.Graph(true, 6, u.length, u, v, w, 0, "edge"));
+    }
+
+    private static CondensedPaths condensed(CSRGraph graph, CondensedPaths.IntraCost intraCost) {
+        TarjanSCC tarjan = new TarjanSCC(graph);
+        tarjan.findSCCsIterative();
+        List<Integer> order = new TopologicalSort(tarjan.buildCondensationCSR()).kahnSort();
+        return new CondensedPaths(graph, tarjan.getComponentIds(), tarjan.getComponentCount(), order, intraCost);
+    }
+
+    @Test
+    void testShortestPathsOnCyclicGraph() {
+        CondensedPaths paths = condensed(cyclicGraph(), CondensedPaths.IntraCost.ZERO);
+        DAGShortestPath.ShortestPathResult result = paths.shortestPaths(0);
+
+        assertArrayEquals(new int[]{0, 0, 0, 4, 4, 6}, result.getDist());
+        // 3 is entered via 0 -> 3, 4 sits behind the entry vertex, 5 via 4 -> 5
+        assertEquals(0, result.getParent()[3]);
+        assertEquals(3, result.getParent()[4]);
+        assertEquals(4, result.getParent()[5]);
+        assertEquals(0, result.getParent()[2]);
+        assertEquals(-1, result.getParent()[0]);
+    }
+
+    @Test
+    void testIntraCostRules() {
+        CSRGraph graph = cyclicGraph();
+        assertArrayEquals(new int[]{6, 6, 6, 12, 12, 14},
+                condensed(graph, CondensedPaths.IntraCost.SUM).shortestPaths(0).getDist());
+        assertArrayEquals(new int[]{1, 1, 1, 6, 6, 8},
+                condensed(graph, CondensedPaths.IntraCost.MIN).shortestPaths(0).getDist());
+    }
+
+    @Test
+    void testLongestAndCriticalPath() {
+        CondensedPaths paths = condensed(cyclicGraph(), CondensedPaths.IntraCost.ZERO);
+
+        DAGShortestPath.LongestPathResult longest = paths.longestPath(0);
+        assertArrayEquals(new int[]{0, 0, 0, 5, 5, 7}, longest.getDist());
+        assertEquals(2, longest.getParent()[3]);
+
+        DAGShortestPath.CriticalPathResult critical = paths.findCriticalPath();
+        assertEquals(7, critical.getLength());
+        assertEquals(Arrays.asList(2, 3, 4, 5), critical.getPath());
+        assertArrayEquals(new int[]{2, 3, 4}, critical.allPaths().path(4).toArray());
+    }
+
+    @Test
+    void testUnreachableVertices() {
+        CondensedPaths paths = condensed(cyclicGraph(), CondensedPaths.IntraCost.ZERO);
+        DAGShortestPath.ShortestPathResult shortest = paths.shortestPaths(3);
+        DAGShortestPath.LongestPathResult longest = paths.longestPath(3);
+
+        for (int v = 0; v < 3; v++) {
+            assertEquals(Integer.MAX_VALUE, shortest.getDist()[v]);
+            assertEquals(Integer.MIN_VALUE, longest.getDist()[v]);
+            assertEquals(-1, shortest.getParent()[v]);
+        }
+        assertEquals(2, shortest.getDist()[5]);
+    }
+
+    @Test
+    void testMatchesVertexLevelSweepOnDag() {
+        CSRGraph graph = new GraphGenerator(11L).generateCSR(GraphGenerator.Shape.LAYERED_DAG, 300, 1_500);
+        CondensedPaths paths = condensed(graph, CondensedPaths.IntraCost.SUM);
+        List<Integer> order = new TopologicalSort(graph).kahnSort();
+        DAGShortestPath dagSP = new DAGShortestPath(graph, "edge");
+
+        assertEquals(300, paths.getComponentCount());
+        for (int source : new int[]{0, 40, 120}) {
+            assertArrayEquals(dagSP.shortestPaths(source, order).getDist(), paths.shortestPaths(source).getDist());
+            assertArrayEquals(dagSP.longestPath(source, order).getDist(), paths.longestPath(source).getDist());
+        }
+        assertEquals(dagSP.findCriticalPath(order).getLength(), paths.findCriticalPath().getLength());
+    }
+
+    @Test
+    void testNodeWeightModel() {
+        int[] u = {0, 1, 2, 2, 0, 3, 4, 4};
+        int[] v = {1, 2, 0, 3, 3, 4, 3, 5};
+        int[] w = {1, 2, 3, 5, 4, 1, 1, 2};
+        GraphLoader.Graph graph = new GraphLoader.Graph(true, 6, u.length, u, v, w, 0, "node",
+                new int[]{1, 2, 3, 10, 20, 7});
+        GraphPipeline pipeline = new GraphPipeline(graph);
+
+        // edges between components are free, each component costs its vertices
+        assertArrayEquals(new int[]{6, 6, 6, 36, 36, 43},
+                pipeline.getCondensedPaths(CondensedPaths.IntraCost.SUM).shortestPaths(0).getDist());
+        assertArrayEquals(new int[]{1, 1, 1, 11, 11, 18},
+                pipeline.getCondensedPaths(CondensedPaths.IntraCost.MIN).shortestPaths(0).getDist());
+        assertEquals(43, pipeline.getCondensedPaths(CondensedPaths.IntraCost.SUM).findCriticalPath().getLength());
+    }
+
+    @Test
+    void testNodeWeightsMatchVertexLevelSweepOnDag() {
+        GraphLoader.Graph graph = new GraphGenerator(13L).generateGraph(GraphGenerator.Shape.LAYERED_DAG, 200, 800);
+        int[] nodeWeights = new int[200];
+        for (int i = 0; i < nodeWeights.length; i++) nodeWeights[i] = 1 + (i * 37) % 11;
+        GraphPipeline pipeline = new GraphPipeline(graph.toAdjacency(), "node", nodeWeights, 0);
+        CondensedPaths paths = pipeline.getCondensedPaths(CondensedPaths.IntraCost.SUM);
+
+        for (int source : new int[]{0, 30, 90}) {
+            assertArrayEquals(pipeline.shortestPaths(source).getDist(), paths.shortestPaths(source).getDist());
+            assertArrayEquals(pipeline.longestPath(source).getDist(), paths.longestPath(source).getDist());
+        }
+        assertEquals(pipeline.criticalPath().getLength(), paths.findCriticalPath().getLength());
+    }
+
+    @Test
+    void testZeroRuleChargesLoneVerticesUnderNodeModel() {
+        GraphLoader.Graph graph = new GraphGenerator(17L).generateGraph(GraphGenerator.Shape.LAYERED_DAG, 150, 600);
+        int[] nodeWeights = new int[150];
+        for (int i = 0; i < nodeWeights.length; i++) nodeWeights[i] = 1 + (i * 29) % 7;
+        GraphPipeline pipeline = new GraphPipeline(graph.toAdjacency(), "node", nodeWeights, 0);
+        CondensedPaths paths = pipeline.getCondensedPaths(CondensedPaths.IntraCost.ZERO);
+
+        // every component of a DAG is a single vertex, so ZERO agrees with the vertex-level sweep
+        for (int source : new int[]{0, 25, 70}) {
+            assertArrayEquals(pipeline.shortestPaths(source).getDist(), paths.shortestPaths(source).getDist());
+            assertArrayEquals(pipeline.longestPath(source).getDist(), paths.longestPath(source).getDist());
+        }
+        assertEquals(pipeline.criticalPath().getLength(), paths.findCriticalPath().getLength());
+    }
+
+    @Test
+    void testPipelineMemoizesPerRule() {
+        GraphLoader.Graph graph = new GraphGenerator(5L).generateGraph(GraphGenerator.Shape.PLANTED_SCC, 200, 1_000);
+        GraphPipeline pipeline = new GraphPipeline(graph);
+
+        CondensedPaths zero = pipeline.getCondensedPaths(CondensedPaths.IntraCost.ZERO);
+        assertSame(zero, pipeline.getCondensedPaths(CondensedPaths.IntraCost.ZERO));
+        assertNotSame(zero, pipeline.getCondensedPaths(CondensedPaths.IntraCost.SUM));
+        assertEquals(10, zero.getComponentCount());
+        assertTrue(zero.getDagEdgeCount() <= 45);
+        assertEquals(0, zero.getMetrics().getRelaxations());
+        zero.shortestPaths(0);
+        assertTrue(zero.getMetrics().getRelaxations() <= zero.getDagEdgeCount());
+    }
+}
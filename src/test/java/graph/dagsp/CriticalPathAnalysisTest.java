@@ -0,0 +1,104 @@
+package graph.dagsp;
+
+import org.example.graph.dagsp.CriticalPathAnalysis;
+import org.example.graph.dagsp.DAGShortestPath;
+import org.example.graph.topo.TopologicalSort;
+import org.example.util.CSRGraph;
+import org.example.util.GraphGenerator;
+import org.example.util.GraphLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CriticalPathAnalysisTest {
+
+    @Test
+    void testScheduleWithNodeDurations() {
+        int[] u = {0, 0, 1, 2};
+        int[] v = {1, 2, 3, 3};
+        GraphLoader.Graph graph = new GraphLoader.Graph(true, 4, u.length, u, v, new int[4], 0, "node",
+                new int[]{3, 2, 4, 1});
+        CriticalPathAnalysis.Schedule schedule = new CriticalPathAnalysis(DAGShortestPath.fromGraphLoader(graph)).analyze();
+
+        assertEquals(8, schedule.getProjectDuration());
+        assertArrayEquals(new int[]{0, 3, 3, 7}, schedule.getEarliestStart());
+        assertArrayEquals(new int[]{3, 5, 7, 8}, schedule.getEarliestFinish());
+        assertArrayEquals(new int[]{0, 5, 3, 7}, schedule.getLatestStart());
+        assertArrayEquals(new int[]{3, 7, 7, 8}, schedule.getLatestFinish());
+        assertArrayEquals(new int[]{0, 2, 0, 0}, schedule.getSlack());
+        assertArrayEquals(new int[]{0, 2, 3}, schedule.getCriticalTasks());
+        assertFalse(schedule.isCritical(1));
+    }
+
+    @Test
+    void testEdgeLagsMatchLongestPath() {
+        CSRGraph graph = new GraphGenerator(21L).generateCSR(GraphGenerator.Shape.LAYERED_DAG, 2_000, 10_000);
+        DAGShortestPath dagSP = new DAGShortestPath(graph, "edge");
+        List<Integer> order = new TopologicalSort(graph).kahnSort();
+        DAGShortestPath.CriticalPathResult critical = dagSP.findCriticalPath(order);
+
+        CriticalPathAnalysis.Schedule schedule = new CriticalPathAnalysis(dagSP, 1).analyze();
+
+        assertEquals(critical.getLength(), schedule.getProjectDuration());
+        for (int x : schedule.getSlack()) assertTrue(x >= 0);
+        for (int x : critical.getPath()) assertTrue(schedule.isCritical(x), "vertex " + x);
+        int[] offsets = graph.getOffsets();
+        for (int a = 0; a < graph.getN(); a++) {
+            for (int e = offsets[a]; e < offsets[a + 1]; e++) {
+                int b = graph.getTargets()[e];
+                assertTrue(schedule.getEarliestStart()[b] >= schedule.getEarliestFinish()[a] + graph.getWeights()[e]);
+                assertTrue(schedule.getLatestStart()[b] >= schedule.getLatestFinish()[a] + graph.getWeights()[e]);
+            }
+        }
+    }
+
+    @Test
+    void testParallelMatchesSequential() {
+        // levels of about 5000 vertices, so the passes are split into chunks
+        GraphGenerator generator = new GraphGenerator(4L);
+        generator.setLayerCount(10);
+        CSRGraph graph = generator.generateCSR(GraphGenerator.Shape.LAYERED_DAG, 50_000, 200_000);
+        DAGShortestPath dagSP = new DAGShortestPath(graph, "edge");
+
+        CriticalPathAnalysis.Schedule sequential = new CriticalPathAnalysis(dagSP, 1).analyze();
+        CriticalPathAnalysis parallel = new CriticalPathAnalysis(dagSP, 4);
+        CriticalPathAnalysis.Schedule schedule = parallel.analyze();
+
+        assertEquals(sequential.getProjectDuration(), schedule.getProjectDuration());
+        assertArrayEquals(sequential.getEarliestStart(), schedule.getEarliestStart());
+        assertArrayEquals(sequential.getLatestFinish(), schedule.getLatestFinish());
+        assertArrayEquals(sequential.getSlack(), schedule.getSlack());
+        assertArrayEquals(sequential.getCriticalTasks(), schedule.getCriticalTasks());
+        assertEquals(2L * graph.getEdgeCount(), parallel.getMetrics().getRelaxations());
+    }
+
+    @Test
+    void testCycleIsRejected() {
+        CSRGraph cycle = new CSRGraph(2, new int[]{0, 1, 2}, new int[]{1, 0}, new int[]{1, 1});
+        CriticalPathAnalysis analysis = new CriticalPathAnalysis(new DAGShortestPath(cycle, "edge"));
+        assertThrows(IllegalArgumentException.class, analysis::analyze);
+    }
+
+    @Test
+    void testSuccessiveWeightChanges() {
+        // 0 -> 1 -> 2
+        CSRGraph chain = new CSRGraph(3, new int[]{0, 1, 2, 2}, new int[]{1, 2}, new int[]{1, 1});
+        DAGShortestPath dagSP = new DAGShortestPath(chain, "edge");
+        List<Integer> order = List.of(0, 1, 2);
+        CriticalPathAnalysis analysis = new CriticalPathAnalysis(dagSP, 1);
+        assertEquals(2, analysis.analyze().getProjectDuration());
+
+        DAGShortestPath.LongestPathResult longest = dagSP.longestPath(0, order);
+        longest = dagSP.updateLongestPath(longest, 0, order, List.of(new DAGShortestPath.WeightChange(0, 1, 5)));
+        assertEquals(6, analysis.analyze().getProjectDuration());
+        dagSP.updateLongestPath(longest, 0, order, List.of(new DAGShortestPath.WeightChange(1, 2, 10)));
+
+        CriticalPathAnalysis.Schedule schedule = analysis.analyze();
+        assertEquals(15, schedule.getProjectDuration());
+        assertArrayEquals(new int[]{0, 5, 15}, schedule.getEarliestStart());
+        assertArrayEquals(new int[]{0, 5, 15}, schedule.getLatestStart());
+        assertArrayEquals(new int[]{0, 0, 0}, schedule.getSlack());
+    }
+}
@@ -1,6 +1,11 @@
 package graph.dagsp;
 
 import org.example.graph.dagsp.DAGShortestPath;
+import org.example.graph.dagsp.PathResultCache;
+import org.example.graph.dagsp.Reachability;
+import org.example.graph.topo.TopologicalSort;
+import org.example.util.CSRGraph;
+import org.example.util.GraphGenerator;
 import org.example.util.GraphLoader;
 import org.junit.jupiter.api.Test;
 
@@ -8,6 +13,7 @@ import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -100,5 +106,229 @@ class DAGShortestPathTest {
         
         assertTrue(dagSP.getMetrics().getRelaxations() > 0);
     }
-}
 
+    @Test
+    void testIncrementalUpdateMatchesFullRecompute() {
+        int n = 300;
+        Random random = new Random(3);
+        List<List<DAGShortestPath.WeightedEdge>> graph = new ArrayList<>();
+        List<int[]> edges = new ArrayList<>();
+        for (int u = 0; u < n; u++) {
+            List<DAGShortestPath.WeightedEdge> out = new ArrayList<>();
+            for (int k = 0; k < 4 && u + 1 < n; k++) {
+                int v = u + 1 + random.nextInt(Math.min(20, n - u - 1));
+                int w = 1 + random.nextInt(50);
+                out.add(new DAGShortestPath.WeightedEdge(v, w));
+                edges.add(new int[]{u, v});
+            }
+            graph.add(out);
+        }
+        List<Integer> topoOrder = new ArrayList<>();
+        for (int i = 0; i < n; i++) topoOrder.add(i);
+
+        DAGShortestPath incremental = new DAGShortestPath(graph, n, "edge");
+        DAGShortestPath.ShortestPathResult shortest = incremental.shortestPaths(0, topoOrder);
+        DAGShortestPath.LongestPathResult longest = incremental.longestPath(0, topoOrder);
+
+        for (int round = 0; round < 50; round++) {
+            int[] edge = edges.get(random.nextInt(edges.size()));
+            int w = 1 + random.nextInt(50);
+            List<DAGShortestPath.WeightChange> changes = List.of(new DAGShortestPath.WeightChange(edge[0], edge[1], w));
+            for (DAGShortestPath.WeightedEdge e : new ArrayList<>(graph.get(edge[0]))) {
+                if (e.getV() == edge[1]) {
+                    graph.get(edge[0]).set(graph.get(edge[0]).indexOf(e), new DAGShortestPath.WeightedEdge(edge[1], w));
+                }
+            }
+
+            shortest = incremental.updateShortestPaths(shortest, 0, topoOrder, changes);
+            assertTrue(incremental.getMetrics().getVerticesTouched() > 0);
+            longest = incremental.updateLongestPath(longest, 0, topoOrder, changes);
+
+            DAGShortestPath full = new DAGShortestPath(graph, n, "edge");
+            assertArrayEquals(full.shortestPaths(0, topoOrder).getDist(), shortest.getDist());
+            assertArrayEquals(full.longestPath(0, topoOrder).getDist(), longest.getDist());
+        }
+    }
+
+    @Test
+    void testIncrementalUpdateTouchesOnlyDownstream() {
+        List<List<DAGShortestPath.WeightedEdge>> graph = new ArrayList<>();
+        graph.add(Arrays.asList(new DAGShortestPath.WeightedEdge(1, 1), new DAGShortestPath.WeightedEdge(2, 1)));
+        graph.add(Arrays.asList(new DAGShortestPath.WeightedEdge(3, 1)));
+        graph.add(Arrays.asList(new DAGShortestPath.WeightedEdge(4, 1)));
+        graph.add(new ArrayList<>());
+        graph.add(new ArrayList<>());
+
+        DAGShortestPath dagSP = new DAGShortestPath(graph, 5, "edge");
+        List<Integer> topoOrder = Arrays.asList(0, 1, 2, 3, 4);
+        DAGShortestPath.ShortestPathResult before = dagSP.shortestPaths(0, topoOrder);
+        DAGShortestPath.ShortestPathResult after = dagSP.updateShortestPaths(before, 0, topoOrder,
+                List.of(new DAGShortestPath.WeightChange(2, 4, 10)));
+
+        assertEquals(2, before.getDist()[4]);
+        assertEquals(11, after.getDist()[4]);
+        assertEquals(2, after.getDist()[3]);
+        assertEquals(1, dagSP.getMetrics().getVerticesTouched());
+    }
+
+    @Test
+    void testOrderListMutatedInPlace() {
+        // 0 -> 1 -> 2 -> 3
+        CSRGraph chain = new CSRGraph(4, new int[]{0, 1, 2, 3, 3}, new int[]{1, 2, 3}, new int[]{1, 1, 1});
+        DAGShortestPath dagSP = new DAGShortestPath(chain, "edge");
+        List<Integer> topoOrder = new ArrayList<>(List.of(0, 1, 2));
+        assertEquals(Integer.MAX_VALUE, dagSP.shortestPath(0, 3, topoOrder).getDist()[3]);
+
+        topoOrder.add(3);
+        assertEquals(3, dagSP.shortestPath(0, 3, topoOrder).getDist()[3]);
+        DAGShortestPath.ShortestPathResult before = dagSP.shortestPaths(0, topoOrder);
+        DAGShortestPath.ShortestPathResult after = dagSP.updateShortestPaths(before, 0, topoOrder,
+                List.of(new DAGShortestPath.WeightChange(2, 3, 5)));
+        assertEquals(7, after.getDist()[3]);
+    }
+
+    @Test
+    void testFailingChangeBatchLeavesGraphUnchanged() {
+        // 0 -> 1 -> 2
+        CSRGraph chain = new CSRGraph(3, new int[]{0, 1, 2, 2}, new int[]{1, 2}, new int[]{1, 1});
+        DAGShortestPath dagSP = new DAGShortestPath(chain, "edge");
+        dagSP.setResultCache(new PathResultCache(1 << 20));
+        List<Integer> topoOrder = Arrays.asList(0, 1, 2);
+        DAGShortestPath.ShortestPathResult before = dagSP.shortestPaths(0, topoOrder);
+
+        List<DAGShortestPath.WeightChange> changes = List.of(
+                new DAGShortestPath.WeightChange(0, 1, 100), new DAGShortestPath.WeightChange(2, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> dagSP.updateShortestPaths(before, 0, topoOrder, changes));
+
+        assertEquals(1, dagSP.getGraph().weight(dagSP.getGraph().edgeStart(0)));
+        assertEquals(0, dagSP.getGraphVersion());
+        assertArrayEquals(new int[]{0, 1, 2}, dagSP.shortestPaths(0, topoOrder).getDist());
+
+        DAGShortestPath.ShortestPathResult after = dagSP.updateShortestPaths(before, 0, topoOrder,
+                List.of(new DAGShortestPath.WeightChange(0, 1, 100)));
+        assertArrayEquals(new int[]{0, 100, 101}, after.getDist());
+        assertEquals(1, dagSP.getGraphVersion());
+        assertSame(after, dagSP.shortestPaths(0, topoOrder));
+    }
+
+    @Test
+    void testBatchedSourcesMatchSingleSource() throws Exception {
+        GraphLoader.Graph graph = GraphLoader.loadGraph("data/large_1_sparse.json");
+        DAGShortestPath dagSP = DAGShortestPath.fromGraphLoader(graph);
+        List<Integer> topoOrder = new TopologicalSort(dagSP.getGraph()).kahnSort();
+        int[] sources = new int[graph.getN()];
+        for (int i = 0; i < sources.length; i++) sources[i] = i;
+
+        DAGShortestPath.MultiSourceResult sequential = dagSP.shortestPathsBatch(sources, topoOrder);
+        DAGShortestPath.MultiSourceResult parallel = dagSP.shortestPathsBatch(sources, topoOrder, 4, 3);
+
+        for (int k = 0; k < sources.length; k++) {
+            DAGShortestPath.ShortestPathResult single = dagSP.shortestPaths(sources[k], topoOrder);
+            DAGShortestPath.SourceView view = parallel.forSource(k);
+            assertEquals(sources[k], view.getSource());
+            for (int v = 0; v < graph.getN(); v++) {
+                assertEquals(single.getDist()[v], sequential.getDist(k, v));
+                assertEquals(single.getDist()[v], view.getDist(v));
+                assertEquals(single.getParent()[v], view.getParent(v));
+            }
+            int last = topoOrder.get(topoOrder.size() - 1);
+            assertEquals(dagSP.reconstructPath(sources[k], last, single.getParent()), view.reconstructPath(last));
+        }
+    }
+
+    @Test
+    void testNodeWeightModel() {
+        int[] u = {0, 0, 1, 2};
+        int[] v = {1, 2, 3, 3};
+        int[] w = {100, 100, 100, 100};
+        GraphLoader.Graph graph = new GraphLoader.Graph(true, 4, u.length, u, v, w, 0, "node",
+                new int[]{2, 5, 1, 3});
+        DAGShortestPath dagSP = DAGShortestPath.fromGraphLoader(graph);
+        List<Integer> topoOrder = Arrays.asList(0, 1, 2, 3);
+
+        // edge weights are ignored, every vertex on the path counts, the source included
+        assertArrayEquals(new int[]{2, 7, 3, 6}, dagSP.shortestPaths(0, topoOrder).getDist());
+        DAGShortestPath.LongestPathResult longest = dagSP.longestPath(0, topoOrder);
+        assertEquals(10, longest.getDist()[3]);
+        assertEquals(1, longest.getParent()[3]);
+        DAGShortestPath.CriticalPathResult critical = dagSP.findCriticalPath(topoOrder);
+        assertEquals(10, critical.getLength());
+        assertEquals(Arrays.asList(0, 1, 3), critical.getPath());
+        assertEquals(6, dagSP.shortestPathsBatch(new int[]{0, 1}, topoOrder).getDist(0, 3));
+        assertEquals(8, dagSP.shortestPathsBatch(new int[]{0, 1}, topoOrder).getDist(1, 3));
+
+        assertThrows(UnsupportedOperationException.class, () -> dagSP.updateShortestPaths(
+                dagSP.shortestPaths(0, topoOrder), 0, topoOrder, List.of(new DAGShortestPath.WeightChange(0, 1, 1))));
+    }
+
+    @Test
+    void testNodeWeightModelNeedsWeights() {
+        GraphLoader.Graph graph = new GraphLoader.Graph(true, 2, 1, new int[]{0}, new int[]{1}, new int[]{1}, 0, "node");
+        assertThrows(IllegalArgumentException.class, () -> DAGShortestPath.fromGraphLoader(graph));
+    }
+
+    @Test
+    void testPointToPointMatchesFullSweep() {
+        int n = 5_000;
+        CSRGraph graph = new GraphGenerator(11).generateCSR(GraphGenerator.Shape.LAYERED_DAG, n, 20_000);
+        List<Integer> topoOrder = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) topoOrder.add(i);
+        DAGShortestPath dagSP = new DAGShortestPath(graph, "edge");
+
+        DAGShortestPath.ShortestPathResult full = dagSP.shortestPaths(3, topoOrder);
+        long fullRelaxations = dagSP.getMetrics().getRelaxations();
+
+        // a target a few layers down, so the slice ends well before the last layer
+        int target = -1;
+        for (int v = 2_000; v < n && target == -1; v++) {
+            if (full.getDist()[v] != Integer.MAX_VALUE) target = v;
+        }
+        assertTrue(target > 0);
+
+        DAGShortestPath.ShortestPathResult sliced = dagSP.shortestPath(3, target, topoOrder);
+        long slicedRelaxations = dagSP.getMetrics().getRelaxations();
+        assertEquals(full.getDist()[target], sliced.getDist()[target]);
+        assertEquals(full.getDist()[target], pathCost(graph, sliced.pathTo(target).toArray()));
+        assertTrue(slicedRelaxations < fullRelaxations);
+
+        Reachability reach = Reachability.to(graph, target);
+        assertTrue(reach.canReach(3));
+        DAGShortestPath.ShortestPathResult pruned = dagSP.shortestPath(3, target, topoOrder, reach);
+        assertEquals(full.getDist()[target], pruned.getDist()[target]);
+        assertEquals(full.getDist()[target], pathCost(graph, pruned.pathTo(target).toArray()));
+        assertTrue(dagSP.getMetrics().getRelaxations() < slicedRelaxations);
+    }
+
+    private static int pathCost(CSRGraph graph, int[] path) {
+        int cost = 0;
+        for (int i = 0; i + 1 < path.length; i++) {
+            int best = Integer.MAX_VALUE;
+            for (int e = graph.getOffsets()[path[i]]; e < graph.getOffsets()[path[i] + 1]; e++) {
+                if (graph.getTargets()[e] == path[i + 1]) best = Math.min(best, graph.getWeights()[e]);
+            }
+            cost += best;
+        }
+        return cost;
+    }
+
+    @Test
+    void testPointToPointUnreachable() {
+        // 0 -> 1 -> 2, 3 -> 2
+        CSRGraph graph = new CSRGraph(4, new int[]{0, 1, 2, 2, 3}, new int[]{1, 2, 2}, new int[]{4, 1, 1});
+        List<Integer> topoOrder = Arrays.asList(3, 0, 1, 2);
+        DAGShortestPath dagSP = new DAGShortestPath(graph, "edge");
+
+        assertEquals(5, dagSP.shortestPath(0, 2, topoOrder).getDist()[2]);
+        assertEquals(0, dagSP.shortestPath(1, 1, topoOrder).getDist()[1]);
+
+        // target before source in the order: nothing is swept
+        assertEquals(Integer.MAX_VALUE, dagSP.shortestPath(1, 3, topoOrder).getDist()[3]);
+        assertEquals(0, dagSP.getMetrics().getRelaxations());
+
+        Reachability reach = Reachability.to(graph, 1);
+        assertFalse(reach.canReach(3));
+        assertEquals(2, reach.size());
+        assertTrue(dagSP.shortestPath(3, 1, topoOrder, reach).pathTo(1).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> dagSP.shortestPath(0, 2, topoOrder, reach));
+    }
+}
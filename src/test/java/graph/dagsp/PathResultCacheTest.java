@@ -0,0 +1,123 @@
+package graph.dagsp;
+
+import org.example.graph.dagsp.DAGShortestPath;
+import org.example.graph.dagsp.PathResultCache;
+import org.example.graph.pipeline.GraphPipeline;
+import org.example.graph.pipeline.PathQueryService;
+import org.example.util.CSRGraph;
+import org.example.util.GraphGenerator;
+import org.example.util.GraphLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathResultCacheTest {
+
+    // 0 -> 1 -> 3 and 0 -> 2 -> 3
+    private static CSRGraph diamond() {
+        return new CSRGraph(4, new int[]{0, 2, 3, 4, 4}, new int[]{1, 2, 3, 3}, new int[]{1, 5, 2, 1});
+    }
+
+    private static final List<Integer> ORDER = Arrays.asList(0, 1, 2, 3);
+
+    @Test
+    void testHitReturnsSharedResult() {
+        DAGShortestPath dagSP = new DAGShortestPath(diamond(), "edge");
+        PathResultCache cache = new PathResultCache(1 << 20);
+        dagSP.setResultCache(cache);
+
+        DAGShortestPath.ShortestPathResult first = dagSP.shortestPaths(0, ORDER);
+        assertEquals(1, dagSP.getMetrics().getCacheMisses());
+        assertEquals(4, dagSP.getMetrics().getRelaxations());
+
+        assertSame(first, dagSP.shortestPaths(0, ORDER));
+        assertEquals(1, dagSP.getMetrics().getCacheHits());
+        assertEquals(0, dagSP.getMetrics().getCacheMisses());
+        assertEquals(0, dagSP.getMetrics().getRelaxations());
+
+        // the kind is part of the key
+        assertNotNull(dagSP.longestPath(0, ORDER));
+        assertEquals(1, dagSP.getMetrics().getCacheMisses());
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvictedBySize() {
+        CSRGraph graph = diamond();
+        DAGShortestPath dagSP = new DAGShortestPath(graph, "edge");
+        PathResultCache cache = new PathResultCache(2 * PathResultCache.sizeOf(4));
+        dagSP.setResultCache(cache);
+
+        DAGShortestPath.ShortestPathResult zero = dagSP.shortestPaths(0, ORDER);
+        dagSP.shortestPaths(1, ORDER);
+        dagSP.shortestPaths(0, ORDER);
+        dagSP.shortestPaths(2, ORDER);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2 * PathResultCache.sizeOf(4), cache.getBytes());
+        assertSame(zero, cache.getShortest(0, 0));
+        assertNull(cache.getShortest(0, 1));
+        assertNotNull(cache.getShortest(0, 2));
+    }
+
+    @Test
+    void testResultLargerThanBudgetIsNotCached() {
+        DAGShortestPath dagSP = new DAGShortestPath(diamond(), "edge");
+        PathResultCache cache = new PathResultCache(PathResultCache.sizeOf(4) - 1);
+        dagSP.setResultCache(cache);
+
+        assertNotSame(dagSP.shortestPaths(0, ORDER), dagSP.shortestPaths(0, ORDER));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testWeightChangeInvalidates() {
+        DAGShortestPath dagSP = new DAGShortestPath(diamond(), "edge");
+        PathResultCache cache = new PathResultCache(1 << 20);
+        dagSP.setResultCache(cache);
+
+        DAGShortestPath.ShortestPathResult before = dagSP.shortestPaths(0, ORDER);
+        dagSP.longestPath(0, ORDER);
+        assertEquals(3, before.getDist()[3]);
+
+        DAGShortestPath.ShortestPathResult repaired = dagSP.updateShortestPaths(before, 0, ORDER,
+                List.of(new DAGShortestPath.WeightChange(1, 3, 10)));
+        assertEquals(1, dagSP.getGraphVersion());
+        assertEquals(1, cache.getVersion());
+        // the old longest result is gone, the repaired shortest one is cached for the new version
+        assertNull(cache.getLongest(1, 0));
+        assertSame(repaired, dagSP.shortestPaths(0, ORDER));
+        assertEquals(6, repaired.getDist()[3]);
+        assertEquals(11, dagSP.longestPath(0, ORDER).getDist()[3]);
+
+        // an engine still on the old version neither reads nor writes
+        DAGShortestPath stale = new DAGShortestPath(diamond(), "edge");
+        stale.setResultCache(cache);
+        assertEquals(3, stale.shortestPaths(0, ORDER).getDist()[3]);
+        assertEquals(6, dagSP.shortestPaths(0, ORDER).getDist()[3]);
+    }
+
+    @Test
+    void testPipelineAndServiceUseTheCache() {
+        GraphLoader.Graph graph = new GraphGenerator(17L).generateGraph(GraphGenerator.Shape.LAYERED_DAG, 500, 2_000);
+        GraphPipeline pipeline = new GraphPipeline(graph);
+        pipeline.setResultCache(new PathResultCache(3 * PathResultCache.sizeOf(500)));
+        for (int source = 0; source < 10; source++) pipeline.shortestPaths(source);
+        assertEquals(3, pipeline.getResultCache().size());
+
+        try (PathQueryService service = new PathQueryService(pipeline, 1 << 20)) {
+            for (int i = 0; i < 100; i++) {
+                assertArrayEquals(pipeline.shortestPaths(i % 5).getDist(), service.shortestPaths(i % 5).getResult().getDist());
+            }
+            assertEquals(95, service.getRegistry().stats("query_shortest").getCacheHits());
+            assertEquals(5, service.getRegistry().stats("query_shortest").getCacheMisses());
+            assertTrue(service.getRegistry().toPrometheus().contains("graph_algorithm_cache_hits_total{algorithm=\"query_shortest\"} 95"));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package graph.dagsp;
+
+import org.example.graph.dagsp.DAGShortestPath;
+import org.example.graph.dagsp.PathArena;
+import org.example.graph.dagsp.PathView;
+import org.example.util.CSRGraph;
+import org.example.util.GraphGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathViewTest {
+
+    // 0 -> 1 -> 3 and 0 -> 2 -> 3, vertex 4 is isolated
+    private static CSRGraph diamond() {
+        return new CSRGraph(5, new int[]{0, 2, 3, 4, 4, 4}, new int[]{1, 2, 3, 3}, new int[]{1, 5, 2, 1});
+    }
+
+    private static final List<Integer> ORDER = Arrays.asList(0, 1, 2, 3, 4);
+
+    private static List<Integer> identity(int n) {
+        List<Integer> order = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) order.add(i);
+        return order;
+    }
+
+    @Test
+    void testForwardIterationOnLongChain() {
+        int n = 10_000;
+        CSRGraph graph = new GraphGenerator(7).generateCSR(GraphGenerator.Shape.LONG_CHAIN, n, n - 1);
+        DAGShortestPath dagSP = new DAGShortestPath(graph, "edge");
+        DAGShortestPath.LongestPathResult result = dagSP.longestPath(0, identity(n));
+
+        PathView view = result.pathTo(n - 1);
+        assertEquals(n, view.length());
+        assertEquals(0, view.first());
+        assertEquals(n - 1, view.last());
+
+        PrimitiveIterator.OfInt it = view.iterator();
+        for (int i = 0; i < n; i++) {
+            assertTrue(it.hasNext());
+            assertEquals(i, it.nextInt());
+        }
+        assertFalse(it.hasNext());
+        assertEquals(dagSP.reconstructPath(0, n - 1, result.getParent()), view.toList());
+        assertEquals(4_321, view.get(4_321));
+    }
+
+    @Test
+    void testUnreachableAndForeignSource() {
+        DAGShortestPath dagSP = new DAGShortestPath(diamond(), "edge");
+        DAGShortestPath.ShortestPathResult result = dagSP.shortestPaths(0, ORDER);
+
+        assertTrue(result.pathTo(4).isEmpty());
+        assertEquals(0, result.pathTo(4).toArray().length);
+        assertArrayEquals(new int[]{0, 1, 3}, result.pathTo(3).toArray());
+        assertArrayEquals(new int[]{0}, result.pathTo(0).toArray());
+
+        assertTrue(PathView.ofParents(result.getParent(), 1, 3).isEmpty());
+        assertTrue(dagSP.reconstructPath(2, 3, result.getParent()).isEmpty());
+        assertFalse(PathView.EMPTY.iterator().hasNext());
+    }
+
+    @Test
+    void testArenaMatchesViews() {
+        int n = 2_000;
+        CSRGraph graph = new GraphGenerator(3).generateCSR(GraphGenerator.Shape.LAYERED_DAG, n, 8_000);
+        DAGShortestPath dagSP = new DAGShortestPath(graph, "edge");
+        DAGShortestPath.ShortestPathResult result = dagSP.shortestPaths(0, identity(n));
+
+        PathArena arena = result.allPaths();
+        assertEquals(n, arena.size());
+        int[] offsets = arena.getOffsets();
+        for (int v = 0; v < n; v++) {
+            assertEquals(v, arena.getTarget(v));
+            assertArrayEquals(result.pathTo(v).toArray(), arena.path(v).toArray(), "vertex " + v);
+            assertEquals(offsets[v + 1] - offsets[v], arena.length(v));
+        }
+    }
+
+    @Test
+    void testArenaForSelectedTargets() {
+        DAGShortestPath dagSP = new DAGShortestPath(diamond(), "edge");
+        DAGShortestPath.LongestPathResult result = dagSP.longestPath(0, ORDER);
+
+        PathArena arena = result.pathsTo(new int[]{3, 4, 0});
+        assertEquals(3, arena.size());
+        assertArrayEquals(new int[]{0, 2, 3}, arena.path(0).toArray());
+        assertTrue(arena.path(1).isEmpty());
+        assertArrayEquals(new int[]{0}, arena.path(2).toArray());
+        assertArrayEquals(new int[]{0, 2, 3, 0}, Arrays.copyOf(arena.getVertices(), arena.getOffsets()[3]));
+    }
+
+    @Test
+    void testCriticalPathViews() {
+        DAGShortestPath dagSP = new DAGShortestPath(diamond(), "edge");
+        DAGShortestPath.CriticalPathResult critical = dagSP.findCriticalPath(ORDER);
+
+        assertEquals(6, critical.getLength());
+        assertEquals(Arrays.asList(0, 2, 3), critical.getPath());
+        assertArrayEquals(new int[]{0, 2, 3}, critical.getPathView().toArray());
+
+        PathArena arena = critical.allPaths();
+        assertArrayEquals(new int[]{0, 2}, arena.path(2).toArray());
+        assertArrayEquals(new int[]{4}, arena.path(4).toArray());
+    }
+
+    @Test
+    void testParentCycleIsRejected() {
+        int[] parent = {1, 0};
+        assertThrows(IllegalStateException.class, () -> PathView.ofParents(parent, -1, 0).length());
+        assertThrows(IllegalStateException.class, () -> PathArena.build(parent, -1));
+    }
+}
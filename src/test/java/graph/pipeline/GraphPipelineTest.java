@@ -0,0 +1,162 @@
+package graph.pipeline;
+
+import org.example.graph.dagsp.CriticalPathAnalysis;
+import org.example.graph.dagsp.DAGShortestPath;
+import org.example.graph.pipeline.GraphPipeline;
+import org.example.graph.scc.TarjanSCC;
+import org.example.graph.topo.TopologicalSort;
+import org.example.util.CSRGraph;
+import org.example.util.GraphGenerator;
+import org.example.util.GraphLoader;
+import org.example.util.Tracer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphPipelineTest {
+
+    // 0 -> 1 -> 2 -> 0 is one SCC, 2 -> 3 -> 4 and 0 -> 4 leave it
+    private static GraphLoader.Graph cyclicGraph() {
+        int[] u = {0, 1, 2, 2, 3, 0};
+        int[] v = {1, 2, 0, 3, 4, 4};
+        int[] w = {1, 1, 1, 2, 3, 10};
+        return new GraphLoader.Graph(true, 5, u.length, u, v, w, 0, "edge");
+    }
+
+    @Test
+    void testStagesAreComputedOnce() {
+        GraphPipeline pipeline = new GraphPipeline(cyclicGraph());
+
+        assertSame(pipeline.getAdjacency(), pipeline.getAdjacency());
+        assertSame(pipeline.getSCCs(), pipeline.getSCCs());
+        assertSame(pipeline.getCondensation(), pipeline.getCondensation());
+        assertSame(pipeline.getTopologicalOrder(), pipeline.getTopologicalOrder());
+        assertSame(pipeline.shortestPaths(0), pipeline.shortestPaths(0));
+        assertSame(pipeline.longestPath(0), pipeline.longestPath(0));
+
+        assertEquals(3, pipeline.getSCCs().size());
+        assertEquals(5, pipeline.getTopologicalOrder().size());
+    }
+
+    @Test
+    void testLaterQueriesReuseUpstreamStages() {
+        GraphPipeline pipeline = new GraphPipeline(cyclicGraph());
+        Tracer tracer = new Tracer();
+        pipeline.setTracer(tracer);
+
+        pipeline.shortestPaths(0);
+        pipeline.shortestPaths(3);
+        pipeline.longestPath(0);
+        pipeline.shortestPaths(0);
+
+        List<String> names = new ArrayList<>();
+        for (Tracer.Span span : tracer.getSpans()) names.add(span.getName());
+        for (String stage : List.of("adjacency", "scc", "condensation", "topo_sort", "order_expansion", "dagsp_setup")) {
+            assertEquals(1, names.stream().filter(stage::equals).count(), stage);
+        }
+        // one sweep per distinct (kind, source), the repeated query is memoized
+        assertEquals(3, names.stream().filter("relaxation"::equals).count());
+    }
+
+    @Test
+    void testResultsMatchManualWiring() {
+        GraphLoader.Graph graph = new GraphGenerator(7L).generateGraph(GraphGenerator.Shape.PLANTED_SCC, 400, 2_000);
+        GraphPipeline pipeline = new GraphPipeline(graph);
+
+        CSRGraph csr = CSRGraph.fromGraphLoader(graph);
+        TarjanSCC tarjan = new TarjanSCC(csr);
+        List<List<Integer>> sccs = tarjan.findSCCsIterative();
+        TopologicalSort topo = new TopologicalSort(tarjan.buildCondensationCSR());
+        List<Integer> order = topo.sortOriginalVertices(sccs, topo.kahnSort());
+        DAGShortestPath dagSP = new DAGShortestPath(csr, graph.getWeightModel());
+
+        assertEquals(order, pipeline.getTopologicalOrder());
+        for (int source : new int[]{0, 150, 399}) {
+            assertArrayEquals(dagSP.shortestPaths(source, order).getDist(), pipeline.shortestPaths(source).getDist());
+            assertArrayEquals(dagSP.longestPath(source, order).getDist(), pipeline.longestPath(source).getDist());
+        }
+    }
+
+    @Test
+    void testCriticalPathOnDag() {
+        GraphLoader.Graph graph = new GraphGenerator(3L).generateGraph(GraphGenerator.Shape.LAYERED_DAG, 200, 1_000);
+        GraphPipeline pipeline = new GraphPipeline(graph);
+
+        DAGShortestPath.CriticalPathResult critical = pipeline.criticalPath();
+        assertSame(critical, pipeline.criticalPath());
+        assertEquals(200, pipeline.getSCCs().size());
+        int best = 0;
+        for (int source = 0; source < 200; source++) {
+            for (int d : pipeline.longestPath(source).getDist()) best = Math.max(best, d);
+        }
+        assertEquals(best, critical.getLength());
+        assertEquals(best, pipeline.schedule().getProjectDuration());
+        assertSame(pipeline.schedule(), pipeline.schedule());
+    }
+
+    @Test
+    void testClearPathResultsKeepsUpstream() {
+        GraphPipeline pipeline = new GraphPipeline(cyclicGraph());
+        DAGShortestPath.ShortestPathResult first = pipeline.shortestPaths();
+        List<Integer> order = pipeline.getTopologicalOrder();
+
+        pipeline.clearPathResults();
+
+        assertNotSame(first, pipeline.shortestPaths());
+        assertArrayEquals(first.getDist(), pipeline.shortestPaths().getDist());
+        assertSame(order, pipeline.getTopologicalOrder());
+    }
+
+    @Test
+    void testPointToPointQuery() {
+        GraphPipeline pipeline = new GraphPipeline(cyclicGraph());
+        DAGShortestPath.ShortestPathResult partial = pipeline.shortestPath(0, 4);
+        assertEquals(new GraphPipeline(cyclicGraph()).shortestPaths(0).getDist()[4], partial.getDist()[4]);
+
+        // once the full result is memoized it answers point-to-point queries too
+        DAGShortestPath.ShortestPathResult full = pipeline.shortestPaths(0);
+        assertSame(full, pipeline.shortestPath(0, 4));
+    }
+
+    @Test
+    void testCriticalPathFollowsWeightChanges() {
+        // 0 -> 1 -> 2 and 0 -> 2
+        int[] u = {0, 1, 0};
+        int[] v = {1, 2, 2};
+        int[] w = {1, 1, 5};
+        GraphPipeline pipeline = new GraphPipeline(new GraphLoader.Graph(true, 3, u.length, u, v, w, 0, "edge"));
+        assertEquals(5, pipeline.criticalPath().getLength());
+
+        DAGShortestPath engine = pipeline.getPathEngine();
+        List<Integer> order = pipeline.getTopologicalOrder();
+        engine.updateLongestPath(pipeline.longestPath(0), 0, order, List.of(new DAGShortestPath.WeightChange(1, 2, 10)));
+
+        DAGShortestPath.CriticalPathResult critical = pipeline.criticalPath();
+        assertEquals(11, critical.getLength());
+        assertEquals(List.of(0, 1, 2), critical.getPath());
+        assertSame(critical, pipeline.criticalPath());
+    }
+
+    @Test
+    void testScheduleFollowsWeightChanges() {
+        // 0 -> 1 -> 2 and 0 -> 2
+        int[] u = {0, 1, 0};
+        int[] v = {1, 2, 2};
+        int[] w = {1, 1, 5};
+        GraphPipeline pipeline = new GraphPipeline(new GraphLoader.Graph(true, 3, u.length, u, v, w, 0, "edge"));
+        assertEquals(5, pipeline.schedule().getProjectDuration());
+        assertFalse(pipeline.schedule().isCritical(1));
+
+        DAGShortestPath engine = pipeline.getPathEngine();
+        List<Integer> order = pipeline.getTopologicalOrder();
+        engine.updateLongestPath(pipeline.longestPath(0), 0, order, List.of(new DAGShortestPath.WeightChange(1, 2, 10)));
+
+        CriticalPathAnalysis.Schedule schedule = pipeline.schedule();
+        assertEquals(11, schedule.getProjectDuration());
+        assertTrue(schedule.isCritical(1));
+        assertSame(schedule, pipeline.schedule());
+    }
+}
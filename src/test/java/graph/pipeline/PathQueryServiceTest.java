@@ -0,0 +1,111 @@
+package graph.pipeline;
+
+import org.example.graph.dagsp.DAGShortestPath;
+import org.example.graph.pipeline.GraphPipeline;
+import org.example.graph.pipeline.PathQueryService;
+import org.example.util.GraphGenerator;
+import org.example.util.GraphLoader;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathQueryServiceTest {
+
+    // 0 -> 1 -> 3 costs 3, 0 -> 2 -> 3 costs 6; 4 is unreachable
+    private static GraphPipeline smallPipeline() {
+        int[] u = {0, 0, 1, 2};
+        int[] v = {1, 2, 3, 3};
+        int[] w = {1, 5, 2, 1};
+        return new GraphPipeline(new GraphLoader.Graph(true, 5, u.length, u, v, w, 0, "edge"));
+    }
+
+    @Test
+    void testConcurrentQueriesMatchSequential() {
+        GraphLoader.Graph graph = new GraphGenerator(9L).generateGraph(GraphGenerator.Shape.PLANTED_SCC, 2_000, 10_000);
+        GraphPipeline pipeline = new GraphPipeline(graph);
+
+        try (PathQueryService service = new PathQueryService(pipeline)) {
+            List<CompletableFuture<PathQueryService.Answer<DAGShortestPath.ShortestPathResult>>> shortest = new ArrayList<>();
+            List<CompletableFuture<PathQueryService.Answer<DAGShortestPath.LongestPathResult>>> longest = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                shortest.add(service.submitShortestPaths(i % 50));
+                longest.add(service.submitLongestPath(i % 50));
+            }
+            for (int i = 0; i < 2_000; i++) {
+                PathQueryService.Answer<DAGShortestPath.ShortestPathResult> answer = shortest.get(i).join();
+                assertArrayEquals(pipeline.shortestPaths(i % 50).getDist(), answer.getResult().getDist());
+                assertArrayEquals(pipeline.longestPath(i % 50).getDist(), longest.get(i).join().getResult().getDist());
+                // every answer has its own counters, untouched by the other queries
+                assertEquals(answer.getMetrics().getRelaxations(), service.shortestPaths(i % 50).getMetrics().getRelaxations());
+            }
+            // the submitted queries plus the synchronous ones above
+            assertEquals(4_000, service.getRegistry().stats("query_shortest").getRuns());
+            assertEquals(2_000, service.getRegistry().stats("query_longest").getRuns());
+        }
+    }
+
+    @Test
+    void testReconstructPath() {
+        try (PathQueryService service = new PathQueryService(smallPipeline())) {
+            assertEquals(List.of(0, 1, 3), service.reconstructPath(PathQueryService.Kind.SHORTEST, 0, 3).getResult());
+            assertEquals(List.of(0, 2, 3), service.reconstructPath(PathQueryService.Kind.LONGEST, 0, 3).getResult());
+            assertEquals(List.of(), service.reconstructPath(PathQueryService.Kind.SHORTEST, 0, 4).getResult());
+            assertThrows(IllegalArgumentException.class, () -> service.shortestPaths(5));
+        }
+    }
+
+    @Test
+    void testLineProtocol() {
+        try (PathQueryService service = new PathQueryService(smallPipeline())) {
+            assertTrue(service.handle("shortest 0").startsWith("ok shortest source=0 reached=4 relaxations=4 "));
+            assertTrue(service.handle("shortest 0 3").startsWith("ok shortest source=0 target=3 dist=3 path=0,1,3 "));
+            assertTrue(service.handle("longest 0 3").startsWith("ok longest source=0 target=3 dist=6 path=0,2,3 "));
+            assertTrue(service.handle("  path longest 0 3").startsWith("ok longest source=0 target=3 path=0,2,3 "));
+            assertTrue(service.handle("shortest 0 4").startsWith("ok shortest source=0 target=4 dist=unreachable path= "));
+            assertEquals("error malformed request: shortest x", service.handle("shortest x"));
+            assertEquals("error unknown request: widest 0", service.handle("widest 0"));
+            assertTrue(service.handle("shortest 9").startsWith("error vertex 9 out of range"));
+        }
+    }
+
+    @Test
+    void testServeAnswersInRequestOrder() throws IOException {
+        StringBuilder requests = new StringBuilder();
+        for (int i = 0; i < 3_000; i++) {
+            requests.append(i % 2 == 0 ? "shortest 0 3\n" : "path longest 0 3\n");
+        }
+        requests.append("\nquit\nshortest 0\n");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (PathQueryService service = new PathQueryService(smallPipeline())) {
+            service.serve(new ByteArrayInputStream(requests.toString().getBytes(StandardCharsets.UTF_8)), out);
+        }
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3_000, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertTrue(lines[i].startsWith(i % 2 == 0 ? "ok shortest" : "ok longest"), lines[i]);
+        }
+    }
+
+    @Test
+    void testSocket() throws IOException {
+        try (PathQueryService service = new PathQueryService(smallPipeline());
+             var server = service.listen(0);
+             Socket socket = new Socket(server.getInetAddress(), server.getLocalPort())) {
+            PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out.println("shortest 0 3");
+            assertTrue(in.readLine().startsWith("ok shortest source=0 target=3 dist=3"));
+            out.println("quit");
+            assertNull(in.readLine());
+        }
+    }
+}
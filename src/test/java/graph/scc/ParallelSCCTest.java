@@ -0,0 +1,83 @@
+package graph.scc;
+
+import org.example.graph.scc.ParallelSCC;
+import org.example.graph.scc.TarjanSCC;
+import org.example.util.CSRGraph;
+import org.example.util.GraphLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelSCCTest {
+
+    @Test
+    void testMatchesTarjanOnDatasets() throws Exception {
+        String[] datasets = {"tasks.json", "data/small_2_cyclic.json", "data/medium_3_multiple_scc.json", "data/large_2_medium.json"};
+        for (String dataset : datasets) {
+            CSRGraph csr = CSRGraph.fromGraphLoader(GraphLoader.loadGraph(dataset));
+            ParallelSCC parallel = new ParallelSCC(csr, 4, 0);
+            List<List<Integer>> actual = parallel.findSCCs();
+
+            assertTrue(parallel.wasParallel());
+            assertSamePartition(new TarjanSCC(csr).findSCCs(), actual);
+        }
+    }
+
+    @Test
+    void testMatchesTarjanOnRandomGraph() {
+        int n = 30_000;
+        Random random = new Random(42);
+        List<List<Integer>> adj = new ArrayList<>();
+        for (int i = 0; i < n; i++) adj.add(new ArrayList<>());
+        for (int i = 0; i < 3 * n; i++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            // mostly forward edges so the graph has many SCCs of different sizes
+            if (u > v && random.nextInt(4) != 0) {
+                int t = u;
+                u = v;
+                v = t;
+            }
+            adj.get(u).add(v);
+        }
+        CSRGraph csr = CSRGraph.fromAdjacency(adj, n);
+
+        TarjanSCC tarjan = new TarjanSCC(csr);
+        List<List<Integer>> expected = tarjan.findSCCsIterative();
+        ParallelSCC parallel = new ParallelSCC(csr, 4, 1_000);
+        List<List<Integer>> actual = parallel.findSCCs();
+
+        assertTrue(parallel.wasParallel());
+        assertSamePartition(expected, actual);
+
+        Map<Integer, Integer> expectedMap = tarjan.getVertexToSCC();
+        Map<Integer, Integer> actualMap = parallel.getVertexToSCC();
+        for (int u = 0; u < n; u++) {
+            for (int v : adj.get(u)) {
+                assertEquals(expectedMap.get(u).equals(expectedMap.get(v)), actualMap.get(u).equals(actualMap.get(v)));
+            }
+        }
+    }
+
+    @Test
+    void testFallsBackToTarjanOnSmallGraphs() throws Exception {
+        GraphLoader.Graph graph = GraphLoader.loadGraph("data/small_2_cyclic.json");
+        ParallelSCC parallel = ParallelSCC.fromGraphLoader(graph, 4);
+        TarjanSCC tarjan = TarjanSCC.fromGraphLoader(graph);
+
+        assertEquals(tarjan.findSCCs(), parallel.findSCCs());
+        assertFalse(parallel.wasParallel());
+        assertEquals(tarjan.getVertexToSCC(), parallel.getVertexToSCC());
+    }
+
+    private static void assertSamePartition(List<List<Integer>> expected, List<List<Integer>> actual) {
+        assertEquals(expected.size(), actual.size());
+        Set<Set<Integer>> expectedSets = new HashSet<>();
+        for (List<Integer> scc : expected) expectedSets.add(new HashSet<>(scc));
+        for (List<Integer> scc : actual) {
+            assertTrue(expectedSets.contains(new HashSet<>(scc)));
+        }
+    }
+}
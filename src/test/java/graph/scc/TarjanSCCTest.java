@@ -2,9 +2,12 @@ package graph.scc;
 
 import org.example.graph.scc.TarjanSCC;
 import org.example.graph.topo.TopologicalSort;
+import org.example.util.CSRGraph;
 import org.junit.jupiter.api.Test;
 import org.example.util.GraphLoader;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -80,5 +83,63 @@ class TarjanSCCTest {
         }
         assertTrue(hasCycle);
     }
-}
 
+    @Test
+    void testIterativeMatchesRecursive() throws Exception {
+        String[] datasets = {"tasks.json", "data/small_2_cyclic.json", "data/medium_3_multiple_scc.json", "data/large_3_dense.json"};
+        for (String dataset : datasets) {
+            GraphLoader.Graph graph = GraphLoader.loadGraph(dataset);
+            TarjanSCC recursive = TarjanSCC.fromGraphLoader(graph);
+            TarjanSCC iterative = TarjanSCC.fromGraphLoader(graph);
+
+            assertEquals(recursive.findSCCs(), iterative.findSCCsIterative());
+            assertEquals(recursive.getMetrics().getDfsVisits(), iterative.getMetrics().getDfsVisits());
+            assertEquals(recursive.getMetrics().getEdgeTraversals(), iterative.getMetrics().getEdgeTraversals());
+        }
+    }
+
+    @Test
+    void testIterativeDeepChain() {
+        int n = 500_000;
+        List<List<Integer>> graph = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            graph.add(i + 1 < n ? List.of(i + 1) : new ArrayList<>());
+        }
+        graph.set(n - 1, Arrays.asList(n / 2));
+
+        TarjanSCC tarjan = new TarjanSCC(graph, n);
+        List<List<Integer>> sccs = tarjan.findSCCsIterative();
+
+        assertEquals(n / 2 + 1, sccs.size());
+        assertEquals(n - n / 2, sccs.get(0).size());
+        assertEquals(n, tarjan.getMetrics().getDfsVisits());
+    }
+
+    @Test
+    void testComponentIdsAndCondensationCSR() {
+        // 0 <-> 1 form one SCC with two parallel edges into 2
+        int[] offsets = {0, 2, 4, 5, 5};
+        int[] targets = {1, 2, 0, 2, 3};
+        int[] weights = {1, 7, 1, 4, 2};
+        CSRGraph graph = new CSRGraph(4, offsets, targets, weights);
+
+        TarjanSCC tarjan = new TarjanSCC(graph);
+        tarjan.findSCCs();
+        int[] ids = tarjan.getComponentIds();
+        Map<Integer, Integer> vertexToSCC = tarjan.getVertexToSCC();
+
+        assertEquals(3, tarjan.getComponentCount());
+        assertEquals(ids[0], ids[1]);
+        for (int v = 0; v < 4; v++) {
+            assertEquals(ids[v], vertexToSCC.get(v));
+        }
+
+        CSRGraph dag = tarjan.buildCondensationCSR();
+        assertEquals(3, dag.getN());
+        assertEquals(2, dag.getM());
+        int c = ids[0];
+        assertEquals(1, dag.outDegree(c));
+        assertEquals(ids[2], dag.getTargets()[dag.getOffsets()[c]]);
+        assertEquals(4, dag.getWeights()[dag.getOffsets()[c]]);
+    }
+}
@@ -0,0 +1,83 @@
+package graph.topo;
+
+import org.example.graph.topo.DynamicTopologicalOrder;
+import org.example.graph.topo.TopologicalSort;
+import org.example.util.CSRGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DynamicTopologicalOrderTest {
+
+    @Test
+    void testRandomInsertionsKeepOrderValid() {
+        int n = 200;
+        Random random = new Random(11);
+        DynamicTopologicalOrder dynamic = new DynamicTopologicalOrder(n);
+        List<Set<Integer>> adj = new ArrayList<>();
+        for (int i = 0; i < n; i++) adj.add(new HashSet<>());
+
+        for (int i = 0; i < 2_000; i++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            if (adj.get(u).contains(v)) continue;
+            boolean expectCycle = u == v || reaches(adj, v, u);
+
+            assertEquals(!expectCycle, dynamic.addEdge(u, v));
+            if (!expectCycle) adj.get(u).add(v);
+            assertValid(dynamic, adj);
+
+            if (i % 10 == 0 && !adj.get(u).isEmpty()) {
+                int w = adj.get(u).iterator().next();
+                assertTrue(dynamic.removeEdge(u, w));
+                adj.get(u).remove(w);
+                assertFalse(dynamic.hasEdge(u, w));
+            }
+        }
+    }
+
+    @Test
+    void testInitialGraphAndSortOriginalVertices() {
+        List<List<Integer>> condensation = new ArrayList<>();
+        condensation.add(Arrays.asList(1));
+        condensation.add(new ArrayList<>());
+        condensation.add(Arrays.asList(0));
+        DynamicTopologicalOrder dynamic = new DynamicTopologicalOrder(CSRGraph.fromAdjacency(condensation, 3));
+
+        assertEquals(Arrays.asList(2, 0, 1), dynamic.getOrder());
+        assertFalse(dynamic.addEdge(1, 2));
+        assertFalse(dynamic.addEdge(1, 0));
+        assertTrue(dynamic.removeEdge(2, 0));
+        assertTrue(dynamic.addEdge(1, 2));
+        assertTrue(dynamic.position(1) < dynamic.position(2));
+
+        List<List<Integer>> sccs = Arrays.asList(Arrays.asList(0, 3), Arrays.asList(1), Arrays.asList(2, 4));
+        TopologicalSort topo = new TopologicalSort(condensation, 3);
+        assertEquals(Arrays.asList(0, 3, 1, 2, 4), topo.sortOriginalVertices(sccs, dynamic.getOrder()));
+    }
+
+    private static void assertValid(DynamicTopologicalOrder dynamic, List<Set<Integer>> adj) {
+        for (int u = 0; u < adj.size(); u++) {
+            for (int v : adj.get(u)) {
+                assertTrue(dynamic.position(u) < dynamic.position(v));
+            }
+        }
+    }
+
+    private static boolean reaches(List<Set<Integer>> adj, int from, int to) {
+        Deque<Integer> queue = new ArrayDeque<>();
+        Set<Integer> seen = new HashSet<>();
+        queue.add(from);
+        seen.add(from);
+        while (!queue.isEmpty()) {
+            int x = queue.poll();
+            if (x == to) return true;
+            for (int y : adj.get(x)) {
+                if (seen.add(y)) queue.add(y);
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,96 @@
+package graph.topo;
+
+import org.example.graph.topo.ParallelTopologicalSort;
+import org.example.util.CSRGraph;
+import org.example.util.GraphGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelTopologicalSortTest {
+
+    @Test
+    void testWideLayeredDag() {
+        int layers = 5;
+        int width = 5_000;
+        int n = layers * width;
+        Random random = new Random(7);
+        List<List<Integer>> adj = new ArrayList<>();
+        for (int i = 0; i < n; i++) adj.add(new ArrayList<>());
+        for (int l = 0; l + 1 < layers; l++) {
+            for (int i = 0; i < width; i++) {
+                for (int k = 0; k < 3; k++) {
+                    adj.get(l * width + i).add((l + 1) * width + random.nextInt(width));
+                }
+            }
+        }
+        CSRGraph graph = CSRGraph.fromAdjacency(adj, n);
+
+        ParallelTopologicalSort.LevelOrder result = new ParallelTopologicalSort(graph, 4).levelSort();
+
+        assertTrue(result.isComplete());
+        int[] position = new int[n];
+        for (int i = 0; i < n; i++) position[result.getOrder()[i]] = i;
+        for (int u = 0; u < n; u++) {
+            for (int v : adj.get(u)) {
+                assertTrue(position[u] < position[v]);
+                assertTrue(result.getLevel()[u] < result.getLevel()[v]);
+            }
+        }
+        for (int k = 0; k < result.getLevelCount(); k++) {
+            for (int i = result.getLevelOffsets()[k]; i < result.getLevelOffsets()[k + 1]; i++) {
+                assertEquals(k, result.getLevel()[result.getOrder()[i]]);
+            }
+        }
+    }
+
+    @Test
+    void testOrderDoesNotDependOnParallelism() {
+        // enough edges to split the in-degree count, levels wide enough to be expanded in chunks
+        GraphGenerator generator = new GraphGenerator(5L);
+        generator.setLayerCount(8);
+        CSRGraph graph = generator.generateCSR(GraphGenerator.Shape.LAYERED_DAG, 80_000, 400_000);
+
+        ParallelTopologicalSort.LevelOrder sequential = new ParallelTopologicalSort(graph, 1).levelSort();
+        ParallelTopologicalSort.LevelOrder parallel = new ParallelTopologicalSort(graph, 4).levelSort();
+
+        assertTrue(parallel.isComplete());
+        assertArrayEquals(sequential.getOrder(), parallel.getOrder());
+        assertArrayEquals(sequential.getLevel(), parallel.getLevel());
+        assertArrayEquals(sequential.getLevelOffsets(), parallel.getLevelOffsets());
+    }
+
+    @Test
+    void testLevelsAreLongestDepth() {
+        List<List<Integer>> adj = new ArrayList<>();
+        adj.add(Arrays.asList(1, 3));
+        adj.add(Arrays.asList(2));
+        adj.add(Arrays.asList(3));
+        adj.add(new ArrayList<>());
+
+        ParallelTopologicalSort.LevelOrder result = new ParallelTopologicalSort(CSRGraph.fromAdjacency(adj, 4), 2).levelSort();
+
+        assertEquals(Arrays.asList(0, 1, 2, 3), result.toList());
+        assertArrayEquals(new int[]{0, 1, 2, 3}, result.getLevel());
+        assertEquals(4, result.getLevelCount());
+    }
+
+    @Test
+    void testCycleLeavesOrderIncomplete() {
+        List<List<Integer>> adj = new ArrayList<>();
+        adj.add(Arrays.asList(1));
+        adj.add(Arrays.asList(2));
+        adj.add(Arrays.asList(1));
+
+        ParallelTopologicalSort.LevelOrder result = new ParallelTopologicalSort(CSRGraph.fromAdjacency(adj, 3), 2).levelSort();
+
+        assertFalse(result.isComplete());
+        assertEquals(1, result.getCount());
+        assertEquals(-1, result.getLevel()[2]);
+    }
+}
@@ -85,5 +85,55 @@ class TopologicalSortTest {
         assertTrue(topo.getMetrics().getQueuePushes() > 0);
         assertTrue(topo.getMetrics().getQueuePops() > 0);
     }
-}
 
+    @Test
+    void testPrimitiveSortsMatchListSorts() {
+        List<List<Integer>> graph = new ArrayList<>();
+        graph.add(Arrays.asList(1, 2));
+        graph.add(Arrays.asList(3));
+        graph.add(Arrays.asList(3));
+        graph.add(new ArrayList<>());
+
+        TopologicalSort topo = new TopologicalSort(graph, 4);
+        assertEquals(Arrays.asList(0, 1, 2, 3), topo.kahnSort());
+        assertArrayEquals(new int[]{0, 1, 2, 3}, topo.kahnSortArray());
+        assertEquals(Arrays.asList(0, 2, 1, 3), topo.dfsSort());
+        assertArrayEquals(new int[]{0, 2, 1, 3}, topo.dfsSortArray());
+
+        int[] order = new int[4];
+        assertEquals(4, topo.kahnSort(order));
+        assertEquals(4, topo.getMetrics().getQueuePops());
+        assertEquals(4, topo.dfsSort(order));
+        assertEquals(4, topo.getMetrics().getDfsVisits());
+    }
+
+    @Test
+    void testPrimitiveSortsOnCycle() {
+        List<List<Integer>> graph = new ArrayList<>();
+        graph.add(Arrays.asList(1));
+        graph.add(Arrays.asList(2));
+        graph.add(Arrays.asList(1));
+
+        TopologicalSort topo = new TopologicalSort(graph, 3);
+        int[] order = new int[3];
+        assertEquals(1, topo.kahnSort(order));
+        assertEquals(-1, topo.dfsSort(order));
+        assertTrue(topo.dfsSort().isEmpty());
+        assertEquals(0, topo.dfsSortArray().length);
+    }
+
+    @Test
+    void testDfsSortDeepChain() {
+        int n = 400_000;
+        List<List<Integer>> graph = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            graph.add(i + 1 < n ? List.of(i + 1) : new ArrayList<>());
+        }
+
+        int[] order = new TopologicalSort(graph, n).dfsSortArray();
+        assertEquals(n, order.length);
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, order[i]);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package util;
+
+import org.example.graph.dagsp.DAGShortestPath;
+import org.example.graph.scc.TarjanSCC;
+import org.example.graph.topo.TopologicalSort;
+import org.example.util.BinaryGraphFormat;
+import org.example.util.CSRGraph;
+import org.example.util.GraphLoader;
+import org.example.util.SegmentGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryGraphFormatTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRoundTripMatchesCSR() throws Exception {
+        GraphLoader.Graph graph = GraphLoader.loadGraph("data/medium_3_multiple_scc.json");
+        CSRGraph csr = CSRGraph.fromGraphLoader(graph);
+        Path file = dir.resolve("medium.dagb");
+        BinaryGraphFormat.convert("data/medium_3_multiple_scc.json", file);
+
+        assertTrue(BinaryGraphFormat.isBinary(file));
+        try (SegmentGraph mapped = BinaryGraphFormat.map(file)) {
+            assertEquals(csr.getN(), mapped.getN());
+            assertEquals(csr.getM(), mapped.getM());
+            assertEquals(graph.isDirected(), mapped.isDirected());
+            assertEquals(graph.getSource(), mapped.getSource());
+            assertEquals(graph.getWeightModel(), mapped.getWeightModel());
+            for (int u = 0; u < csr.getN(); u++) {
+                assertEquals(csr.edgeStart(u), mapped.edgeStart(u));
+                assertEquals(csr.edgeEnd(u), mapped.edgeEnd(u));
+            }
+            for (long e = 0; e < csr.getM(); e++) {
+                assertEquals(csr.target(e), mapped.target(e));
+                assertEquals(csr.weight(e), mapped.weight(e));
+            }
+        }
+    }
+
+    @Test
+    void testAlgorithmsRunOnMappedGraph() throws Exception {
+        GraphLoader.Graph graph = GraphLoader.loadGraph("tasks.json");
+        Path file = dir.resolve("tasks.dagb");
+        BinaryGraphFormat.write(graph, file);
+
+        CSRGraph csr = CSRGraph.fromGraphLoader(graph);
+        TarjanSCC heapTarjan = new TarjanSCC(csr);
+        List<List<Integer>> expectedSccs = heapTarjan.findSCCsIterative();
+        TopologicalSort heapTopo = new TopologicalSort(heapTarjan.buildCondensationCSR());
+        List<Integer> order = heapTopo.sortOriginalVertices(expectedSccs, heapTopo.kahnSort());
+        int[] expectedDist = new DAGShortestPath(csr, graph.getWeightModel()).shortestPaths(graph.getSource(), order).getDist();
+
+        try (SegmentGraph mapped = BinaryGraphFormat.map(file)) {
+            TarjanSCC tarjan = new TarjanSCC(mapped);
+            assertEquals(expectedSccs, tarjan.findSCCsIterative());
+            assertEquals(expectedSccs, new TarjanSCC(mapped).findSCCs());
+            assertEquals(heapTarjan.buildCondensationCSR().getM(), tarjan.buildCondensationCSR().getM());
+
+            DAGShortestPath dagSP = new DAGShortestPath(mapped, mapped.getWeightModel());
+            assertArrayEquals(expectedDist, dagSP.shortestPaths(mapped.getSource(), order).getDist());
+        }
+    }
+
+    @Test
+    void testLoadGraphDetectsFormat() throws Exception {
+        GraphLoader.Graph json = GraphLoader.loadGraph("data/small_2_cyclic.json");
+        Path jsonFile = dir.resolve("small.json");
+        try (var in = Thread.currentThread().getContextClassLoader().getResourceAsStream("data/small_2_cyclic.json")) {
+            Files.copy(in, jsonFile);
+        }
+        Path binaryFile = dir.resolve("small.bin");
+        BinaryGraphFormat.write(json, binaryFile);
+
+        assertFalse(BinaryGraphFormat.isBinary(jsonFile));
+        GraphLoader.Graph fromJson = GraphLoader.loadGraph(jsonFile);
+        GraphLoader.Graph fromBinary = GraphLoader.loadGraph(binaryFile);
+
+        assertEquals(json.getN(), fromBinary.getN());
+        assertEquals(json.getM(), fromBinary.getM());
+        assertEquals(json.getM(), fromJson.getM());
+        // binary edges come back in CSR order, so compare as CSR
+        CSRGraph expected = CSRGraph.fromGraphLoader(json);
+        CSRGraph actual = CSRGraph.fromGraphLoader(fromBinary);
+        assertArrayEquals(expected.getOffsets(), actual.getOffsets());
+        assertArrayEquals(expected.getTargets(), actual.getTargets());
+        assertArrayEquals(expected.getWeights(), actual.getWeights());
+        assertSame(fromBinary.toAdjacency(), fromBinary.toAdjacency());
+    }
+
+    @Test
+    void testRejectsTruncatedFile() throws Exception {
+        Path file = dir.resolve("tasks.dagb");
+        BinaryGraphFormat.write(GraphLoader.loadGraph("tasks.json"), file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, java.util.Arrays.copyOf(bytes, bytes.length - 4));
+
+        assertThrows(IOException.class, () -> BinaryGraphFormat.map(file));
+    }
+}
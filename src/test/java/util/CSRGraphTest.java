@@ -0,0 +1,67 @@
+package util;
+
+import org.example.graph.dagsp.DAGShortestPath;
+import org.example.graph.scc.TarjanSCC;
+import org.example.graph.topo.TopologicalSort;
+import org.example.util.CSRGraph;
+import org.example.util.GraphLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CSRGraphTest {
+
+    @Test
+    void testFromGraphLoaderKeepsEdgeOrder() throws Exception {
+        GraphLoader.Graph graph = GraphLoader.loadGraph("tasks.json");
+        CSRGraph csr = CSRGraph.fromGraphLoader(graph);
+
+        assertEquals(graph.getN(), csr.getN());
+        assertEquals(graph.getM(), csr.getM());
+
+        int[] cursor = Arrays.copyOf(csr.getOffsets(), graph.getN());
+        for (GraphLoader.Edge e : graph.getEdges()) {
+            int pos = cursor[e.getU()]++;
+            assertEquals(e.getV(), csr.getTargets()[pos]);
+            assertEquals(e.getW(), csr.getWeights()[pos]);
+        }
+    }
+
+    @Test
+    void testTranspose() {
+        List<List<Integer>> adj = new ArrayList<>();
+        adj.add(Arrays.asList(1, 2));
+        adj.add(Arrays.asList(2));
+        adj.add(new ArrayList<>());
+
+        CSRGraph t = CSRGraph.fromAdjacency(adj, 3).transpose();
+
+        assertEquals(3, t.getM());
+        assertEquals(0, t.outDegree(0));
+        assertEquals(1, t.outDegree(1));
+        assertEquals(2, t.outDegree(2));
+        assertEquals(0, t.getTargets()[t.getOffsets()[1]]);
+    }
+
+    @Test
+    void testSharedByAllAlgorithms() throws Exception {
+        GraphLoader.Graph graph = GraphLoader.loadGraph("data/small_1_acyclic.json");
+        CSRGraph csr = CSRGraph.fromGraphLoader(graph);
+
+        TarjanSCC tarjan = new TarjanSCC(csr);
+        assertEquals(graph.getN(), tarjan.findSCCs().size());
+
+        List<Integer> order = new TopologicalSort(csr).kahnSort();
+        assertEquals(graph.getN(), order.size());
+
+        DAGShortestPath dagSP = new DAGShortestPath(csr, graph.getWeightModel());
+        DAGShortestPath.ShortestPathResult result = dagSP.shortestPaths(graph.getSource(), order);
+        DAGShortestPath.ShortestPathResult expected = DAGShortestPath.fromGraphLoader(graph)
+                .shortestPaths(graph.getSource(), order);
+        assertArrayEquals(expected.getDist(), result.getDist());
+    }
+}
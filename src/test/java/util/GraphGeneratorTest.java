@@ -0,0 +1,105 @@
+package util;
+
+import org.example.graph.scc.TarjanSCC;
+import org.example.graph.topo.TopologicalSort;
+import org.example.util.CSRGraph;
+import org.example.util.GraphGenerator;
+import org.example.util.GraphLoader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphGeneratorTest {
+
+    @Test
+    void testDeterministicAndConsistentOutputs() throws Exception {
+        for (GraphGenerator.Shape shape : GraphGenerator.Shape.values()) {
+            GraphGenerator generator = new GraphGenerator(99);
+            GraphLoader.Graph graph = generator.generateGraph(shape, 500, 3_000);
+            GraphLoader.Graph again = new GraphGenerator(99).generateGraph(shape, 500, 3_000);
+            CSRGraph csr = generator.generateCSR(shape, 500, 3_000);
+            CSRGraph expected = CSRGraph.fromGraphLoader(graph);
+
+            assertEquals(graph.getM(), again.getM());
+            for (int i = 0; i < graph.getM(); i++) {
+                assertEquals(graph.getEdgeV(i), again.getEdgeV(i));
+                assertEquals(graph.getEdgeW(i), again.getEdgeW(i));
+            }
+            assertArrayEquals(expected.getOffsets(), csr.getOffsets());
+            assertArrayEquals(expected.getTargets(), csr.getTargets());
+            assertArrayEquals(expected.getWeights(), csr.getWeights());
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            generator.writeJson(shape, 500, 3_000, out);
+            GraphLoader.Graph parsed = GraphLoader.readGraphStreaming(new ByteArrayInputStream(out.toByteArray()));
+            assertEquals(500, parsed.getN());
+            assertEquals("edge", parsed.getWeightModel());
+            assertEquals(graph.getM(), parsed.getM());
+            for (int i = 0; i < graph.getM(); i++) {
+                assertEquals(graph.getEdgeU(i), parsed.getEdgeU(i));
+                assertEquals(graph.getEdgeV(i), parsed.getEdgeV(i));
+            }
+        }
+    }
+
+    @Test
+    void testShapeProperties() {
+        GraphGenerator generator = new GraphGenerator(5);
+        generator.setComponentCount(25);
+        generator.setWeights(GraphGenerator.WeightDistribution.uniform(3, 7));
+
+        CSRGraph planted = generator.generateCSR(GraphGenerator.Shape.PLANTED_SCC, 1_000, 5_000);
+        assertEquals(5_000, planted.getM());
+        assertEquals(25, new TarjanSCC(planted).findSCCsIterative().size());
+        for (int w : planted.getWeights()) {
+            assertTrue(w >= 3 && w <= 7);
+        }
+
+        CSRGraph layered = generator.generateCSR(GraphGenerator.Shape.LAYERED_DAG, 1_000, 5_000);
+        assertEquals(1_000, new TopologicalSort(layered).kahnSortArray().length);
+
+        CSRGraph chain = generator.generateCSR(GraphGenerator.Shape.LONG_CHAIN, 1_000, 1_500);
+        assertEquals(1_500, chain.getM());
+        assertEquals(1_000, new TopologicalSort(chain).dfsSortArray().length);
+
+        CSRGraph random = generator.generateCSR(GraphGenerator.Shape.ERDOS_RENYI, 2_000, 20_000);
+        assertTrue(Math.abs(random.getM() - 20_000) < 1_000);
+    }
+
+    @Test
+    void testEdgeCountsAreExactOrRejected() {
+        GraphGenerator generator = new GraphGenerator(8);
+        assertEquals(1, generator.generateCSR(GraphGenerator.Shape.LONG_CHAIN, 2, 1).getM());
+        assertThrows(IllegalArgumentException.class, () -> generator.generateCSR(GraphGenerator.Shape.LONG_CHAIN, 2, 3));
+        assertThrows(IllegalArgumentException.class, () -> generator.generateCSR(GraphGenerator.Shape.LAYERED_DAG, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> generator.generateCSR(GraphGenerator.Shape.POWER_LAW, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> generator.generateCSR(GraphGenerator.Shape.PLANTED_SCC, 1, 1));
+    }
+
+    @Test
+    void testPlantedSingleVertexBlocksHaveNoSelfLoops() {
+        GraphGenerator generator = new GraphGenerator(13);
+        generator.setComponentCount(50);
+        // 50 blocks of one vertex each; the last block has nowhere to point, the others only forward
+        CSRGraph graph = generator.generateCSR(GraphGenerator.Shape.PLANTED_SCC, 50, 400);
+        assertEquals(400, graph.getM());
+        for (int u = 0; u < graph.getN(); u++) {
+            for (int e = graph.getOffsets()[u]; e < graph.getOffsets()[u + 1]; e++) {
+                assertNotEquals(u, graph.getTargets()[e]);
+            }
+        }
+        assertEquals(50, new TarjanSCC(graph).findSCCsIterative().size());
+
+        generator.setComponentCount(10);
+        CSRGraph blocks = generator.generateCSR(GraphGenerator.Shape.PLANTED_SCC, 25, 300);
+        for (int u = 0; u < blocks.getN(); u++) {
+            for (int e = blocks.getOffsets()[u]; e < blocks.getOffsets()[u + 1]; e++) {
+                assertNotEquals(u, blocks.getTargets()[e]);
+            }
+        }
+        assertEquals(10, new TarjanSCC(blocks).findSCCsIterative().size());
+    }
+}
@@ -1,8 +1,12 @@
 package util;
 
+import org.example.util.GraphAdjacency;
 import org.example.util.GraphLoader;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 
@@ -53,4 +57,116 @@ class GraphLoaderTest {
             assertNotNull(graph.getEdges());
         }
     }
+
+    @Test
+    void testStreamingMatchesTreeLoader() throws Exception {
+        String[] datasets = {
+                "tasks.json",
+                "data/small_2_cyclic.json",
+                "data/medium_3_multiple_scc.json",
+                "data/large_3_dense.json"
+        };
+
+        for (String dataset : datasets) {
+            GraphLoader.Graph tree = GraphLoader.loadGraph(dataset);
+            GraphLoader.Graph streamed = GraphLoader.loadGraphStreaming(dataset);
+
+            assertEquals(tree.isDirected(), streamed.isDirected());
+            assertEquals(tree.getN(), streamed.getN());
+            assertEquals(tree.getSource(), streamed.getSource());
+            assertEquals(tree.getWeightModel(), streamed.getWeightModel());
+            assertEquals(tree.getM(), streamed.getM());
+            for (int i = 0; i < tree.getM(); i++) {
+                assertEquals(tree.getEdgeU(i), streamed.getEdgeU(i));
+                assertEquals(tree.getEdgeV(i), streamed.getEdgeV(i));
+                assertEquals(tree.getEdgeW(i), streamed.getEdgeW(i));
+                assertEquals(tree.getEdges().get(i).getV(), streamed.getEdges().get(i).getV());
+            }
+        }
+    }
+
+    @Test
+    void testStreamingFieldOrderAndWeightModelAlias() throws Exception {
+        String json = "{\"edges\": [{\"w\": 7, \"v\": 2, \"u\": 1, \"label\": {\"x\": [1]}}],"
+                + " \"weightModel\": \"node\", \"meta\": [1, 2], \"n\": 3, \"directed\": false}";
+        GraphLoader.Graph graph = GraphLoader.readGraphStreaming(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(3, graph.getN());
+        assertFalse(graph.isDirected());
+        assertEquals(0, graph.getSource());
+        assertEquals("node", graph.getWeightModel());
+        assertEquals(1, graph.getM());
+        assertEquals(1, graph.getEdgeU(0));
+        assertEquals(2, graph.getEdgeV(0));
+        assertEquals(7, graph.getEdgeW(0));
+    }
+
+    @Test
+    void testStreamingNodeWeights() throws Exception {
+        String json = "{\"node_weights\": [4, 0, 9], \"n\": 3, \"weight_model\": \"node\","
+                + " \"edges\": [{\"u\": 0, \"v\": 2, \"w\": 1}]}";
+        GraphLoader.Graph graph = GraphLoader.readGraphStreaming(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertArrayEquals(new int[]{4, 0, 9}, graph.getNodeWeights());
+        assertEquals(1, graph.getM());
+    }
+
+    @Test
+    void testNodeWeightsMustMatchVertexCount() {
+        String json = "{\"n\": 3, \"node_weights\": [1, 2], \"edges\": []}";
+        assertThrows(java.io.IOException.class, () -> GraphLoader.readGraphStreaming(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))));
+        assertThrows(IllegalArgumentException.class, () -> new GraphLoader.Graph(true, 3, 0, new int[0], new int[0],
+                new int[0], 0, "node", new int[]{1, 2}));
+    }
+
+    @Test
+    void testGraphWithoutNodeWeights() throws Exception {
+        assertNull(GraphLoader.loadGraph("data/small_1_acyclic.json").getNodeWeights());
+    }
+
+    @Test
+    void testAdjacencyWithMoreThanIntEdges() {
+        long m = 3L << 30;
+        // one vertex with m self-loops, nothing is stored
+        GraphAdjacency huge = new GraphAdjacency() {
+            @Override
+            public int getN() {
+                return 1;
+            }
+
+            @Override
+            public long getM() {
+                return m;
+            }
+
+            @Override
+            public long edgeStart(int u) {
+                return 0;
+            }
+
+            @Override
+            public long edgeEnd(int u) {
+                return m;
+            }
+
+            @Override
+            public int target(long e) {
+                return 0;
+            }
+
+            @Override
+            public int weight(long e) {
+                return 1;
+            }
+        };
+
+        GraphLoader.Graph graph = new GraphLoader.Graph(true, huge, 0, "edge");
+        assertEquals(m, graph.getEdgeCount());
+        assertSame(huge, graph.toAdjacency());
+        assertThrows(IllegalStateException.class, graph::getM);
+        assertThrows(IllegalStateException.class, graph::getEdges);
+    }
 }
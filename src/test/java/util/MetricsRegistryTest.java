@@ -0,0 +1,92 @@
+package util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.example.util.LatencyHistogram;
+import org.example.util.Metrics;
+import org.example.util.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    @Test
+    void testHistogramQuantiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) {
+            histogram.record(v * 1_000);
+        }
+
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000_000, histogram.getMax());
+        assertEquals(50_000_000, histogram.valueAtQuantile(0.5), 50_000_000 * 0.01);
+        assertEquals(99_000_000, histogram.valueAtQuantile(0.99), 99_000_000 * 0.01);
+        assertEquals(99_900_000, histogram.valueAtQuantile(0.999), 99_900_000 * 0.01);
+        assertEquals(100_000_000, histogram.valueAtQuantile(1.0));
+        assertEquals(0, new LatencyHistogram().valueAtQuantile(0.5));
+    }
+
+    @Test
+    void testConcurrentRecording() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        int threads = 8;
+        int runs = 10_000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                Metrics metrics = new Metrics();
+                for (int i = 0; i < runs; i++) {
+                    metrics.reset();
+                    metrics.addRelaxations(3);
+                    metrics.addDfsVisits(1);
+                    registry.record("dagsp", metrics);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) worker.join();
+
+        MetricsRegistry.AlgorithmStats stats = registry.stats("dagsp");
+        assertEquals((long) threads * runs, stats.getRuns());
+        assertEquals(3L * threads * runs, stats.getRelaxations());
+        assertEquals((long) threads * runs, stats.getDfsVisits());
+        assertEquals((long) threads * runs, stats.getLatencyNanos().getCount());
+    }
+
+    @Test
+    void testExports() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        Metrics metrics = new Metrics();
+        metrics.addEdgeTraversals(42);
+        registry.record("scc_tarjan", metrics);
+
+        String prometheus = registry.toPrometheus();
+        assertTrue(prometheus.contains("# TYPE graph_algorithm_edge_traversals_total counter"));
+        assertTrue(prometheus.contains("graph_algorithm_edge_traversals_total{algorithm=\"scc_tarjan\"} 42"));
+        assertTrue(prometheus.contains("graph_algorithm_latency_seconds{algorithm=\"scc_tarjan\",quantile=\"0.999\"}"));
+        assertTrue(prometheus.contains("graph_algorithm_latency_seconds_count{algorithm=\"scc_tarjan\"} 1"));
+
+        JsonNode json = new ObjectMapper().readTree(registry.toJson());
+        assertEquals(42, json.path("scc_tarjan").path("edgeTraversals").asLong());
+        assertTrue(json.path("scc_tarjan").path("latencyNanos").has("p99"));
+
+        HttpServer server = registry.serve(0);
+        try {
+            URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/metrics");
+            try (InputStream in = uri.toURL().openStream()) {
+                assertEquals(prometheus, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        } finally {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package util;
+
+import org.example.graph.dagsp.DAGShortestPath;
+import org.example.graph.scc.TarjanSCC;
+import org.example.graph.topo.TopologicalSort;
+import org.example.util.CSRGraph;
+import org.example.util.GraphGenerator;
+import org.example.util.Metrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsTest {
+
+    @Test
+    void testAddAccumulates() {
+        Metrics metrics = new Metrics();
+        metrics.addRelaxations(5);
+        metrics.incrementRelaxations();
+        metrics.addEdgeTraversals(7);
+        assertEquals(6, metrics.getRelaxations());
+        assertEquals(7, metrics.getEdgeTraversals());
+        assertTrue(metrics.isEnabled());
+
+        metrics.reset();
+        assertEquals(0, metrics.getRelaxations());
+    }
+
+    @Test
+    void testDisabledIgnoresEverything() {
+        Metrics metrics = Metrics.DISABLED;
+        metrics.startTiming();
+        metrics.addRelaxations(5);
+        metrics.incrementDfsVisits();
+        metrics.addVerticesTouched(3);
+        metrics.stopTiming();
+
+        assertFalse(metrics.isEnabled());
+        assertEquals(0, metrics.getRelaxations());
+        assertEquals(0, metrics.getDfsVisits());
+        assertEquals(0, metrics.getVerticesTouched());
+        assertEquals(0, metrics.getElapsedTimeNanos());
+    }
+
+    @Test
+    void testAlgorithmsPublishSameCountsAndResults() {
+        CSRGraph graph = new GraphGenerator(5L).generateCSR(GraphGenerator.Shape.LAYERED_DAG, 2_000, 8_000);
+        List<Integer> order = new TopologicalSort(graph).kahnSort();
+
+        TarjanSCC tarjan = new TarjanSCC(graph);
+        tarjan.findSCCsIterative();
+        assertEquals(graph.getN(), tarjan.getMetrics().getDfsVisits());
+        assertEquals(graph.getM(), tarjan.getMetrics().getEdgeTraversals());
+
+        TopologicalSort topo = new TopologicalSort(graph);
+        topo.kahnSort();
+        assertEquals(graph.getN(), topo.getMetrics().getQueuePushes());
+        assertEquals(graph.getN(), topo.getMetrics().getQueuePops());
+        assertEquals(graph.getM(), topo.getMetrics().getEdgeTraversals());
+
+        DAGShortestPath counted = new DAGShortestPath(graph, "edge");
+        DAGShortestPath silent = new DAGShortestPath(graph, "edge");
+        silent.setMetrics(Metrics.DISABLED);
+        int[] expected = counted.shortestPaths(0, order).getDist();
+        assertArrayEquals(expected, silent.shortestPaths(0, order).getDist());
+        assertTrue(counted.getMetrics().getRelaxations() > 0);
+        assertEquals(0, silent.getMetrics().getRelaxations());
+    }
+}
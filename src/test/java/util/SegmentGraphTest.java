@@ -0,0 +1,133 @@
+package util;
+
+import org.example.graph.dagsp.DAGShortestPath;
+import org.example.graph.scc.TarjanSCC;
+import org.example.graph.topo.TopologicalSort;
+import org.example.util.CSRGraph;
+import org.example.util.GraphAdjacency;
+import org.example.util.GraphGenerator;
+import org.example.util.GraphLoader;
+import org.example.util.SegmentGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.foreign.Arena;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentGraphTest {
+
+    @TempDir
+    Path dir;
+
+    private static void assertSameAdjacency(GraphAdjacency expected, GraphAdjacency actual) {
+        assertEquals(expected.getN(), actual.getN());
+        assertEquals(expected.getM(), actual.getM());
+        for (int u = 0; u < expected.getN(); u++) {
+            assertEquals(expected.edgeStart(u), actual.edgeStart(u));
+            assertEquals(expected.edgeEnd(u), actual.edgeEnd(u));
+        }
+        for (long e = 0; e < expected.getM(); e++) {
+            assertEquals(expected.target(e), actual.target(e));
+            assertEquals(expected.weight(e), actual.weight(e));
+        }
+    }
+
+    @Test
+    void testGenerateOffHeapMatchesHeapCSR() {
+        GraphGenerator generator = new GraphGenerator(7L);
+        CSRGraph heap = generator.generateCSR(GraphGenerator.Shape.PLANTED_SCC, 2_000, 10_000);
+        try (Arena arena = Arena.ofConfined()) {
+            SegmentGraph offHeap = generator.generateOffHeap(GraphGenerator.Shape.PLANTED_SCC, 2_000, 10_000, arena);
+            assertSameAdjacency(heap, offHeap);
+            assertSameAdjacency(heap, SegmentGraph.copyOf(heap, arena));
+        }
+    }
+
+    @Test
+    void testAlgorithmsOverOffHeapGraph() {
+        GraphGenerator generator = new GraphGenerator(11L);
+        CSRGraph heap = generator.generateCSR(GraphGenerator.Shape.PLANTED_SCC, 5_000, 20_000);
+        TarjanSCC heapTarjan = new TarjanSCC(heap);
+        List<List<Integer>> expectedSccs = heapTarjan.findSCCsIterative();
+        TopologicalSort heapTopo = new TopologicalSort(heapTarjan.buildCondensationCSR());
+        List<Integer> order = heapTopo.sortOriginalVertices(expectedSccs, heapTopo.kahnSort());
+        int[] expectedDist = new DAGShortestPath(heap, "edge").shortestPaths(0, order).getDist();
+
+        try (Arena arena = Arena.ofShared()) {
+            SegmentGraph offHeap = generator.generateOffHeap(GraphGenerator.Shape.PLANTED_SCC, 5_000, 20_000, arena);
+            TarjanSCC tarjan = new TarjanSCC(offHeap);
+            assertEquals(expectedSccs, tarjan.findSCCsIterative());
+            assertEquals(10, tarjan.getComponentCount());
+
+            assertArrayEquals(expectedDist, new DAGShortestPath(offHeap, "edge").shortestPaths(0, order).getDist());
+
+            CSRGraph dag = generator.generateCSR(GraphGenerator.Shape.LAYERED_DAG, 5_000, 20_000);
+            SegmentGraph dagOffHeap = SegmentGraph.copyOf(dag, arena);
+            assertArrayEquals(new TopologicalSort(dag).kahnSortArray(), new TopologicalSort(dagOffHeap).kahnSortArray());
+            assertArrayEquals(new TopologicalSort(dag).dfsSortArray(), new TopologicalSort(dagOffHeap).dfsSortArray());
+        }
+    }
+
+    @Test
+    void testLoadGraphOffHeapFromJson() throws Exception {
+        Path file = dir.resolve("planted.json");
+        new GraphGenerator(3L).writeJson(GraphGenerator.Shape.PLANTED_SCC, 500, 2_000, file.toFile());
+
+        CSRGraph expected = CSRGraph.fromGraphLoader(GraphLoader.loadGraph(file));
+        try (Arena arena = Arena.ofConfined()) {
+            SegmentGraph offHeap = GraphLoader.loadGraphOffHeap(file, arena);
+            assertSameAdjacency(expected, offHeap);
+            assertEquals("edge", offHeap.getWeightModel());
+            assertTrue(offHeap.isDirected());
+        }
+    }
+
+    @Test
+    void testClosedArenaRejectsReads() {
+        SegmentGraph graph;
+        try (Arena arena = Arena.ofConfined()) {
+            graph = new GraphGenerator(1L).generateOffHeap(GraphGenerator.Shape.LONG_CHAIN, 100, 200, arena);
+            assertEquals(200, graph.getM());
+        }
+        assertThrows(IllegalStateException.class, () -> graph.target(0));
+    }
+
+    @Test
+    void testBuildRejectsOutOfRangeEdge() {
+        try (Arena arena = Arena.ofConfined()) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> SegmentGraph.build(3, sink -> sink.edge(0, 3, 1), arena));
+        }
+    }
+
+    @Test
+    void testBuildRejectsDifferentReplay() {
+        // the second replay overfills row 0 after row 1 is already full
+        int[][][] passes = {{{0, 1}, {1, 2}}, {{1, 2}, {0, 1}, {0, 2}}};
+        int[] pass = {0};
+        SegmentGraph.EdgeSource edges = sink -> {
+            for (int[] e : passes[pass[0]]) sink.edge(e[0], e[1], 1);
+            pass[0]++;
+        };
+        try (Arena arena = Arena.ofConfined()) {
+            assertThrows(IllegalStateException.class, () -> SegmentGraph.build(3, edges, arena));
+        }
+    }
+
+    @Test
+    void testCopyKeepsHeaderFields() {
+        try (Arena arena = Arena.ofConfined()) {
+            CSRGraph heap = new GraphGenerator(4L).generateCSR(GraphGenerator.Shape.LAYERED_DAG, 50, 150);
+            SegmentGraph undirected = SegmentGraph.copyOf(heap, false, 7, "node", arena);
+            SegmentGraph copy = SegmentGraph.copyOf(undirected, arena);
+
+            assertSameAdjacency(heap, copy);
+            assertFalse(copy.isDirected());
+            assertEquals(7, copy.getSource());
+            assertEquals("node", copy.getWeightModel());
+        }
+    }
+}
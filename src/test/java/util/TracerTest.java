@@ -0,0 +1,73 @@
+package util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.util.Metrics;
+import org.example.util.Tracer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TracerTest {
+
+    @Test
+    void testNestedSpans() {
+        Tracer tracer = new Tracer();
+        long[] sink = null;
+        try (Tracer.Span outer = tracer.span("pipeline")) {
+            try (Tracer.Span inner = tracer.span("load")) {
+                sink = new long[100_000];
+                inner.counter("edges", 10).counter("edges", 5);
+            }
+            try (Tracer.Span inner = tracer.span("scc")) {
+                Metrics metrics = new Metrics();
+                metrics.addDfsVisits(7);
+                inner.metrics(metrics);
+            }
+        }
+        assertEquals(100_000, sink.length);
+
+        List<Tracer.Span> spans = tracer.getSpans();
+        assertEquals(List.of("load", "scc", "pipeline"), spans.stream().map(Tracer.Span::getName).toList());
+        Tracer.Span load = spans.get(0);
+        Tracer.Span pipeline = spans.get(2);
+        assertEquals(1, load.getDepth());
+        assertEquals(0, pipeline.getDepth());
+        assertTrue(load.getStartNanos() >= pipeline.getStartNanos());
+        assertTrue(load.getDurationNanos() <= pipeline.getDurationNanos());
+        assertEquals(15L, load.getCounters().get("edges"));
+        assertEquals(7L, spans.get(1).getCounters().get("dfsVisits"));
+        if (load.getAllocatedBytes() >= 0) {
+            assertTrue(load.getAllocatedBytes() >= 800_000);
+            assertTrue(pipeline.getAllocatedBytes() >= load.getAllocatedBytes());
+        }
+    }
+
+    @Test
+    void testChromeTraceExport() throws Exception {
+        Tracer tracer = new Tracer();
+        try (Tracer.Span span = tracer.span("relaxation")) {
+            span.counter("relaxations", 3);
+        }
+
+        JsonNode events = new ObjectMapper().readTree(tracer.toChromeTrace()).path("traceEvents");
+        assertEquals(1, events.size());
+        JsonNode event = events.get(0);
+        assertEquals("relaxation", event.path("name").asText());
+        assertEquals("X", event.path("ph").asText());
+        assertTrue(event.path("dur").asDouble() >= 0);
+        assertEquals(3, event.path("args").path("relaxations").asLong());
+        assertTrue(event.path("args").has("allocatedBytes"));
+    }
+
+    @Test
+    void testDisabledRecordsNothing() {
+        try (Tracer.Span span = Tracer.DISABLED.span("load")) {
+            span.counter("edges", 1);
+        }
+        assertFalse(Tracer.DISABLED.isEnabled());
+        assertTrue(Tracer.DISABLED.getSpans().isEmpty());
+    }
+}